@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# Startup benchmark of the console: time from launching the JVM to the first
+# "Elija una opcion" prompt, and the resident memory (VmRSS) at that moment.
+# Compares the ways of starting the application on the embedded profile:
+#
+#   base      java -jar, no tuning
+#   lazy      java -jar with the fast-startup Spring profile only
+#   aot-cds   the fast-startup build: Spring AOT, CDS archive and the profile
+#   native    the GraalVM executable target/literalura, when it exists
+#
+# Build first with: ./mvnw -Pfast-startup package -DskipTests
+# and, for the native row, ./mvnw -Pnative package -DskipTests on GraalVM
+# (the two builds can share target/ as long as there is no clean in between).
+# Usage: scripts/startup-benchmark.sh [runs] [data-dir]
+#   runs      runs per variant, the median is reported (default 5)
+#   data-dir  an embedded catalog to start on (default: empty); each run gets
+#             a fresh copy so all of them open the same database
+# Linux only: RSS is read from /proc.
+set -euo pipefail
+
+runs=${1:-5}
+seed=${2:-}
+cd "$(dirname "$0")/.."
+
+jar=$(ls target/literalura-*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+fast_dir=target/fast-startup
+fast_jar=$(ls "$fast_dir"/literalura-*.jar 2>/dev/null | head -n 1 || true)
+if [[ -z $jar || -z $fast_jar || ! -f $fast_dir/literalura.jsa ]]; then
+    echo "Missing build, run: ./mvnw -Pfast-startup package -DskipTests" >&2
+    exit 1
+fi
+
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+app_args=(--literalura.data-dir="$work/data" --downloads.refresh.enabled=false)
+
+# One run: prints "<milliseconds> <rss kB>"
+measure() {
+    rm -rf "$work/data" "$work/out" "$work/in"
+    if [[ -n $seed ]]; then
+        cp -r "$seed" "$work/data"
+    fi
+    mkfifo "$work/in"
+    local start pid now rss
+    start=$(date +%s%N)
+    "$@" "${app_args[@]}" < "$work/in" > "$work/out" 2>&1 &
+    pid=$!
+    exec 3> "$work/in"
+    until grep -q "Elija una opcion" "$work/out" 2>/dev/null; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited before showing the menu:" >&2
+            tail -n 20 "$work/out" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    now=$(date +%s%N)
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    echo 0 >&3
+    exec 3>&-
+    wait "$pid"
+    echo "$(( (now - start) / 1000000 )) $rss"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+variant() {
+    local name=$1
+    shift
+    local results=()
+    for ((i = 1; i <= runs; i++)); do
+        results+=("$(measure "$@")")
+    done
+    local ms rss
+    ms=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-8s %10s %10s\n' "$name" "$ms" "$(( rss / 1024 ))"
+}
+
+printf '%-8s %10s %10s\n' variant menu_ms rss_mb
+variant base java -jar "$jar" --spring.profiles.active=embedded
+variant lazy java -jar "$jar" --spring.profiles.active=fast-startup,embedded
+variant aot-cds java -XX:SharedArchiveFile="$fast_dir/literalura.jsa" -Dspring.aot.enabled=true \
+    -jar "$fast_jar" --spring.profiles.active=fast-startup,embedded
+if [[ -x target/literalura ]]; then
+    variant native target/literalura --spring.profiles.active=embedded
+fi
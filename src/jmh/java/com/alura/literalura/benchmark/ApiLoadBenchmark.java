@@ -0,0 +1,157 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.repository.JdbcCatalogWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the REST API ({@code api} profile) from a local client:
+ * {@value #CLIENTS} threads send requests back to back over keep-alive
+ * connections, each waiting for its answer. JMH reports requests per second
+ * (throughput) and the latency distribution with p50 and p99 (sample time);
+ * change the concurrency with {@code -t}.
+ * <p>
+ * The server runs in the same JVM on the embedded profile with a synthetic
+ * catalog of {@link #books} books. With {@code -p revalidate=true} every
+ * request carries the ETag of a first answer, so the numbers are those of
+ * 304 responses; {@code -p gzip=true} asks for compressed bodies. Request
+ * handling runs on virtual threads only on Java 21+ (build with
+ * {@code -Pjava21}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(ApiLoadBenchmark.CLIENTS)
+@Fork(1)
+public class ApiLoadBenchmark {
+
+    static final int CLIENTS = 32;
+
+    @Param({"20000"})
+    private int books;
+
+    @Param({"false"})
+    private boolean revalidate;
+
+    @Param({"false"})
+    private boolean gzip;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest top10;
+    private HttpRequest statistics;
+    private HttpRequest listingPage;
+    private HttpRequest booksByLanguage;
+    private HttpRequest authorsAlive;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException {
+        dataDir = Files.createTempDirectory("literalura-bench");
+        context = BenchmarkApplication.run(BenchmarkApplication.builder().profiles("embedded", "api"),
+                "literalura.data-dir=" + dataDir, "server.port=0");
+
+        JdbcCatalogWriter writer = context.getBean(JdbcCatalogWriter.class);
+        List<BookDTO> chunk = new ArrayList<>(1000);
+        for (long id = 1; id <= books; id++) {
+            chunk.add(SyntheticCatalog.book(id));
+            if (chunk.size() == 1000) {
+                writer.write(chunk);
+                chunk.clear();
+            }
+        }
+        writer.write(chunk);
+        context.publishEvent(new CatalogChangedEvent());
+
+        String base = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        top10 = request(base + "/api/books/top?n=10");
+        statistics = request(base + "/api/stats");
+        listingPage = request(base + "/api/books?after=" + books / 2);
+        booksByLanguage = request(base + "/api/books/language/pt");
+        authorsAlive = request(base + "/api/authors/alive?year=1800");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public int top10() throws IOException, InterruptedException {
+        return send(top10);
+    }
+
+    @Benchmark
+    public int statistics() throws IOException, InterruptedException {
+        return send(statistics);
+    }
+
+    @Benchmark
+    public int listingPage() throws IOException, InterruptedException {
+        return send(listingPage);
+    }
+
+    @Benchmark
+    public int booksByLanguage() throws IOException, InterruptedException {
+        return send(booksByLanguage);
+    }
+
+    @Benchmark
+    public int authorsAlive() throws IOException, InterruptedException {
+        return send(authorsAlive);
+    }
+
+    private HttpRequest request(String url) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        if (revalidate) {
+            HttpResponse<Void> first = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            request.header("If-None-Match", first.headers().firstValue("ETag").orElseThrow());
+        }
+        return request.build();
+    }
+
+    // Reads the whole body, as a real client would, and fails on anything but 200 or 304
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        int status = response.statusCode();
+        if (status != 200 && status != 304) {
+            throw new IllegalStateException(request.uri() + " answered " + status);
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.LiteraluraApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * The application, for the benchmarks that boot it: every bean but
+ * {@link LiteraluraApplication} itself, whose command line runner would wait
+ * for menu input. Configuration classes of this package are left out of the
+ * scan; a benchmark passes the ones it needs to {@link #builder}. Start it
+ * with {@link #run}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@AutoConfigurationPackage(basePackageClasses = LiteraluraApplication.class)
+@ConfigurationPropertiesScan(basePackageClasses = LiteraluraApplication.class)
+@ComponentScan(basePackageClasses = LiteraluraApplication.class, excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = LiteraluraApplication.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.alura\\.literalura\\.benchmark\\..*")
+})
+class BenchmarkApplication {
+
+    /**
+     * Starts the application with the background download refresh off, so it
+     * never competes with the measured code.
+     *
+     * @param application Builder from {@link #builder}, with profiles or
+     *                    extra sources set
+     * @param properties  {@code key=value} settings; passed as command line
+     *                    arguments, since builder properties are only defaults
+     *                    and application.properties would win over them
+     */
+    static ConfigurableApplicationContext run(SpringApplicationBuilder application, String... properties) {
+        return application.run(Stream.concat(Stream.of("downloads.refresh.enabled=false"), Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new));
+    }
+
+    /**
+     * @param sources Extra configuration, e.g. stubs replacing application beans
+     */
+    static SpringApplicationBuilder builder(Class<?>... sources) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class).sources(sources);
+    }
+}
@@ -0,0 +1,101 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.search.TokenIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local title search in the in-memory {@link TokenIndex} against the
+ * {@code upper(title) LIKE upper('%term%')} query that Spring Data derives
+ * for {@code findByTitleContainsIgnoreCase}, run on an in-memory H2 table
+ * with the same synthetic titles. H2 keeps the database side free of network
+ * latency, so the comparison is the lookup itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogIndexBenchmark {
+
+    private static final String[] WORDS = {"amor", "guerra", "noche", "isla", "quijote", "jardín", "río",
+            "memorias", "viaje", "sombra", "invierno", "imperio", "cartas", "misterio", "poemas", "historia"};
+
+    @Param({"100000"})
+    private int books;
+
+    @Param({"quijote", "viaje isla"})
+    private String term;
+
+    private TokenIndex index;
+    private Connection connection;
+    private PreparedStatement like;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        index = new TokenIndex();
+        connection = DriverManager.getConnection("jdbc:h2:mem:catalog-index;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE books (id bigint PRIMARY KEY, title varchar(255))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO books VALUES (?, ?)")) {
+            for (int id = 1; id <= books; id++) {
+                String title = "La " + WORDS[id % WORDS.length] + " de la " + WORDS[(id / 7) % WORDS.length]
+                        + " y el " + WORDS[(id / 131) % WORDS.length] + " tomo " + id;
+                index.add(id, title);
+                insert.setLong(1, id);
+                insert.setString(2, title);
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        // The index matches words in any order; LIKE needs the literal phrase, so use the first word
+        like = connection.prepareStatement("SELECT id FROM books WHERE upper(title) LIKE upper(?) LIMIT 20");
+        like.setString(1, "%" + term.split(" ")[0] + "%");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long[] invertedIndex() {
+        return index.search(term, 20);
+    }
+
+    @Benchmark
+    public int likeQuery() throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = like.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,156 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.AuthorSummary;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.BookRepository;
+import com.alura.literalura.repository.JdbcCatalogWriter;
+import com.alura.literalura.service.BookService;
+import com.alura.literalura.service.GutendexService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service and repository paths behind the menu options, on the embedded
+ * H2 profile with a synthetic catalog of {@link #books} books (see
+ * {@link SyntheticCatalog}) in a temporary directory. Decoding of Gutendex
+ * pages is covered by {@link GutendexDecodeBenchmark}.
+ * <p>
+ * Where the service answers from memory (rankings, lifespans), the
+ * repository query it replaced is measured next to it. The Hibernate query
+ * cache is off unless {@code -p queryCache=true}, so the numbers follow the
+ * queries and their indexes. {@code searchAndSaveBook} runs against a stub
+ * {@link GutendexService} that answers {@code "book N"} with Gutenberg book
+ * N, so no request leaves the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogServiceBenchmark {
+
+    @Param({"100000"})
+    private int books;
+
+    @Param({"false"})
+    private boolean queryCache;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BookRepository bookRepository;
+    private long nextNewBook;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        dataDir = Files.createTempDirectory("literalura-bench");
+        context = BenchmarkApplication.run(BenchmarkApplication.builder(StubGutendex.class).profiles("embedded"),
+                "literalura.data-dir=" + dataDir, "spring.jpa.properties.hibernate.cache.use_query_cache=" + queryCache);
+        bookService = context.getBean(BookService.class);
+        bookRepository = context.getBean(BookRepository.class);
+
+        JdbcCatalogWriter writer = context.getBean(JdbcCatalogWriter.class);
+        List<BookDTO> chunk = new ArrayList<>(1000);
+        for (long id = 1; id <= books; id++) {
+            chunk.add(SyntheticCatalog.book(id));
+            if (chunk.size() == 1000) {
+                writer.write(chunk);
+                chunk.clear();
+            }
+        }
+        writer.write(chunk);
+        // Same as after a catalog import: in-memory indexes reload from the seeded tables
+        context.publishEvent(new CatalogChangedEvent());
+        nextNewBook = books + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public BookStatistics statistics() {
+        return bookService.getBookStatistics();
+    }
+
+    @Benchmark
+    public List<BookListing> top10() {
+        return bookService.getTop10MostDownloaded();
+    }
+
+    @Benchmark
+    public List<BookListing> top10Query() {
+        return bookRepository.findMostDownloadedListings(Limit.of(10));
+    }
+
+    @Benchmark
+    public List<BookListing> booksByLanguage() {
+        return bookService.getBooksByLanguage("pt");
+    }
+
+    @Benchmark
+    public List<AuthorSummary> authorsAliveInYear() {
+        return bookService.getAuthorsAliveInYear(1800);
+    }
+
+    @Benchmark
+    public Book searchAndSaveNewBook() {
+        return bookService.searchAndSaveBook("book " + nextNewBook++);
+    }
+
+    @Benchmark
+    public Book searchAndSaveStoredBook() {
+        return bookService.searchAndSaveBook("book 42");
+    }
+
+    /**
+     * Replaces the Gutendex client with one that answers from {@link SyntheticCatalog}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class StubGutendex {
+
+        @Bean
+        @Primary
+        GutendexService stubGutendexService() {
+            return new GutendexService() {
+                @Override
+                public GutendexResponseDTO fetchBooks(String title) {
+                    long id = Long.parseLong(title.substring("book ".length()));
+                    return new GutendexResponseDTO(1, null, null, List.of(SyntheticCatalog.book(id)));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.service.GutendexService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the buffered decode of {@link GutendexService#fetchBooks(String)}
+ * (body as String, then the whole DTO graph) with the streaming
+ * {@link GutendexService#readPage} path on the same synthetic page.
+ * <p>
+ * Run with the GC profiler, the default of the benchmark profile, and compare
+ * {@code gc.alloc.rate.norm}: it is the number of bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GutendexDecodeBenchmark {
+
+    @Param({"32", "1000"})
+    private int booksPerPage;
+
+    private byte[] page;
+    private ObjectMapper objectMapper;
+    private GutendexService gutendexService;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticCatalog.page(booksPerPage, 1, null).getBytes(StandardCharsets.UTF_8);
+        objectMapper = new ObjectMapper();
+        gutendexService = new GutendexService();
+    }
+
+    @Benchmark
+    public GutendexResponseDTO bufferedString() throws IOException {
+        // What HttpResponse.BodyHandlers.ofString() + readValue(String) does today
+        String body = new String(page, StandardCharsets.UTF_8);
+        return objectMapper.readValue(body, GutendexResponseDTO.class);
+    }
+
+    @Benchmark
+    public Object streaming(Blackhole blackhole) {
+        return gutendexService.readPage(new ByteArrayInputStream(page), blackhole::consume);
+    }
+}
@@ -0,0 +1,129 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.principal.ConsoleRenderer;
+import com.alura.literalura.service.BookListingExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of the book listing (option 2) written to a console, and
+ * of the file export (option 16).
+ * <p>
+ * The console is a stream on the null device set up like {@code System.out}
+ * (autoflush over an 8 KB buffer), so every flush is a real write call.
+ * {@link #printlnPerLine} is the rendering Principal used before
+ * {@link ConsoleRenderer}: four {@code println} and a {@code String.format}
+ * per book. The exports write a {@value #ROWS}-row file in a temporary
+ * directory per invocation, opening and closing it included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingOutputBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final String SEPARATOR = "║    ────────────────────────────────────────────────────────────";
+
+    private List<BookListing> books;
+    private PrintStream console;
+    private ConsoleRenderer renderer;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        books = new ArrayList<>(ROWS);
+        for (long id = 1; id <= ROWS; id++) {
+            books.add(SyntheticCatalog.listing(id));
+        }
+        String nullDevice = System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null";
+        console = new PrintStream(new BufferedOutputStream(new FileOutputStream(nullDevice), 8192), true,
+                StandardCharsets.UTF_8);
+        renderer = new ConsoleRenderer(console);
+        dir = Files.createTempDirectory("literalura-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        console.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void printlnPerLine() {
+        int counter = 1;
+        for (BookListing book : books) {
+            if (counter > 1) {
+                console.println(SEPARATOR);
+            }
+            console.println("║ " + counter + ". " + book.title());
+            console.println("║    Autor: " + (book.authorName() != null ? book.authorName() : "Desconocido"));
+            console.println("║    Idioma: " + book.language());
+            console.println("║    Descargas: " + String.format("%.0f", book.downloads()));
+            counter++;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void consoleRenderer() {
+        int counter = 1;
+        for (BookListing book : books) {
+            if (counter > 1) {
+                renderer.line(SEPARATOR);
+            }
+            renderer.text("║ ").number(counter).text(". ").line(book.title());
+            renderer.text("║    Autor: ").line(book.authorName() != null ? book.authorName() : "Desconocido");
+            renderer.text("║    Idioma: ").line(book.language());
+            renderer.text("║    Descargas: ").number(book.downloads(), 0).endLine();
+            counter++;
+        }
+        renderer.flush();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long csvExport() throws IOException {
+        return export(dir.resolve("books.csv"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long jsonLinesExport() throws IOException {
+        return export(dir.resolve("books.jsonl"));
+    }
+
+    private long export(Path file) throws IOException {
+        try (BookListingExporter exporter = BookListingExporter.open(file)) {
+            books.forEach(exporter::write);
+            return exporter.rows();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.JdbcCatalogWriter;
+import com.alura.literalura.service.BookService;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time and query latency of the application on its two storage
+ * profiles: {@code postgres} (the default properties, which validate the
+ * schema at boot) and {@code embedded} (H2 file database, migrations only).
+ * <p>
+ * {@link #startup} boots the Spring context once per fresh JVM, over several
+ * forks, so every sample is a cold start on an already migrated database
+ * (the trial setup runs Flyway alone, without the application). The
+ * query benchmarks run {@link BookService} methods against a seeded catalog
+ * with the second-level and query cache off, so every call reaches the
+ * database. Title search is trigram-ranked on PostgreSQL and a plain
+ * substring match on H2.
+ * <p>
+ * The postgres profile uses a separate database, {@code literalura_bench} by
+ * default, that is emptied at the end; change it with the {@code bench.jdbc.url},
+ * {@code bench.jdbc.user} and {@code bench.jdbc.password} system properties.
+ * Without a PostgreSQL, run only the embedded profile with {@code -p profile=embedded}.
+ * The embedded database lives in a temporary directory.
+ */
+@State(Scope.Benchmark)
+public class StorageProfileBenchmark {
+
+    private static final String[] LANGUAGES = {"en", "es", "fr", "pt"};
+    private static final String[] WORDS = {"love", "war", "night", "island", "quixote", "garden", "river",
+            "memoirs", "voyage", "shadow", "winter", "empire", "letters", "mystery", "poems", "history"};
+
+    @Param({"postgres", "embedded"})
+    private String profile;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void migrate() throws IOException {
+        dataDir = Files.createTempDirectory("literalura-bench");
+        // Flyway alone rather than a first boot, which would warm up the JVM before the measured one
+        Flyway.configure()
+                .dataSource(url(), user(), password())
+                .locations(profile.equals("embedded") ? "classpath:db/migration/h2" : "classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteData() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public void startup() {
+        start().close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public List<BookListing> booksByLanguage(Catalog catalog) {
+        return catalog.bookService.getBooksByLanguage("es");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public Window<BookListing> firstListingPage(Catalog catalog) {
+        return catalog.bookService.getBooksPage(ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public BookStatistics statistics(Catalog catalog) {
+        return catalog.bookService.getBookStatistics();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public Page<Book> titleSearch(Catalog catalog) {
+        return catalog.bookService.searchBooks("voyage", PageRequest.of(0, 20));
+    }
+
+    /**
+     * The application, started once per trial on a seeded catalog.
+     */
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"20000"})
+        private int books;
+
+        private ConfigurableApplicationContext context;
+        private BookService bookService;
+
+        @Setup(Level.Trial)
+        public void seed(StorageProfileBenchmark benchmark) {
+            context = benchmark.start();
+            bookService = context.getBean(BookService.class);
+
+            JdbcCatalogWriter writer = context.getBean(JdbcCatalogWriter.class);
+            List<BookDTO> chunk = new ArrayList<>(1000);
+            for (int id = 1; id <= books; id++) {
+                AuthorDTO author = new AuthorDTO("Author, Synthetic " + id % 5000, 1500 + id % 450, 1560 + id % 450);
+                chunk.add(new BookDTO((long) id, title(id), List.of(author),
+                        List.of(LANGUAGES[id % LANGUAGES.length]), (double) ((id * 7919L) % 100000)));
+                if (chunk.size() == 1000) {
+                    writer.write(chunk);
+                    chunk.clear();
+                }
+            }
+            writer.write(chunk);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            context.getBean(JdbcTemplate.class)
+                    .execute("DELETE FROM book_authors; DELETE FROM book_languages; DELETE FROM books; DELETE FROM authors");
+            context.close();
+        }
+
+        private static String title(int id) {
+            return "The " + WORDS[id % WORDS.length] + " of the " + WORDS[(id / 7) % WORDS.length]
+                    + " and the " + WORDS[(id / 131) % WORDS.length] + " vol. " + id;
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false"));
+        SpringApplicationBuilder application = BenchmarkApplication.builder();
+        if (profile.equals("embedded")) {
+            application.profiles("embedded");
+            properties.add("literalura.data-dir=" + dataDir);
+        } else {
+            properties.addAll(List.of("spring.datasource.url=" + url(), "spring.datasource.username=" + user(),
+                    "spring.datasource.password=" + password()));
+        }
+        return BenchmarkApplication.run(application, properties.toArray(String[]::new));
+    }
+
+    private String url() {
+        // The embedded one must match application-embedded.properties
+        return profile.equals("embedded")
+                ? "jdbc:h2:file:" + dataDir + "/literalura;MODE=PostgreSQL"
+                : System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/literalura_bench");
+    }
+
+    private String user() {
+        return profile.equals("embedded") ? "sa" : System.getProperty("bench.jdbc.user", "postgres");
+    }
+
+    private String password() {
+        return profile.equals("embedded") ? "" : System.getProperty("bench.jdbc.password", "3320");
+    }
+}
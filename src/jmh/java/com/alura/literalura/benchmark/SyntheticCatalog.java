@@ -0,0 +1,71 @@
+package com.alura.literalura.benchmark;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.BookListing;
+
+import java.util.List;
+
+/**
+ * Builds Gutendex-shaped JSON, and the same books as DTOs, for the
+ * benchmarks, so they never hit the real API.
+ */
+final class SyntheticCatalog {
+
+    private static final String[] LANGUAGES = {"en", "es", "fr", "pt"};
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * Book {@code id} of the catalog, as {@link #page} describes it, ready
+     * for the import writers.
+     */
+    static BookDTO book(long id) {
+        AuthorDTO author = new AuthorDTO("Author, Synthetic " + id % 5000, 1500 + (int) (id % 450),
+                1560 + (int) (id % 450));
+        return new BookDTO(id, "Synthetic book number " + id + ": a tale of two benchmarks", List.of(author),
+                List.of(LANGUAGES[(int) (id % LANGUAGES.length)]), (double) ((id * 7919) % 100000));
+    }
+
+    /**
+     * The row the listing screens show for {@link #book(long) book id}.
+     */
+    static BookListing listing(long id) {
+        BookDTO book = book(id);
+        return new BookListing(id, book.title(), book.authors().get(0).name(), book.languages().get(0),
+                book.downloadCount());
+    }
+
+    /**
+     * @param books Number of results on the page
+     * @param page  Page number, used to give every book a distinct id and title
+     * @param next  Value of the {@code next} link, or null for the last page
+     */
+    static String page(int books, int page, String next) {
+        StringBuilder json = new StringBuilder(books * 700);
+        json.append("{\"count\":").append(books).append(",\"next\":")
+                .append(next == null ? "null" : "\"" + next + "\"")
+                .append(",\"previous\":null,\"results\":[");
+        for (int i = 0; i < books; i++) {
+            int id = (page - 1) * books + i + 1;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                    .append(",\"title\":\"Synthetic book number ").append(id).append(": a tale of two benchmarks\"")
+                    .append(",\"authors\":[{\"name\":\"Author, Synthetic ").append(id % 5000)
+                    .append("\",\"birth_year\":").append(1500 + id % 450)
+                    .append(",\"death_year\":").append(1560 + id % 450).append("}]")
+                    .append(",\"translators\":[],\"subjects\":[\"Fiction\",\"Benchmarks -- Fiction\"]")
+                    .append(",\"bookshelves\":[\"Best Books Ever Listings\"]")
+                    .append(",\"languages\":[\"").append(LANGUAGES[id % LANGUAGES.length]).append("\"]")
+                    .append(",\"copyright\":false,\"media_type\":\"Text\"")
+                    .append(",\"formats\":{\"text/html\":\"https://www.gutenberg.org/ebooks/").append(id)
+                    .append(".html.images\",\"application/epub+zip\":\"https://www.gutenberg.org/ebooks/").append(id)
+                    .append(".epub3.images\"}")
+                    .append(",\"download_count\":").append((id * 7919) % 100000).append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
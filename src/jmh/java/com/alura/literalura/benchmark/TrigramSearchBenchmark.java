@@ -0,0 +1,148 @@
+package com.alura.literalura.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title search latency on a seeded Postgres table: the old
+ * {@code upper(title) LIKE upper('%term%')} scan against the trigram-indexed
+ * {@code ILIKE} and ranked similarity queries of {@code BookRepository}.
+ * <p>
+ * Needs a Postgres with pg_trgm. Connection settings come from the
+ * {@code bench.jdbc.url}, {@code bench.jdbc.user} and {@code bench.jdbc.password}
+ * system properties (pass them with {@code -jvmArgsAppend}). The data lives in
+ * a throwaway {@code bench_search} schema that is dropped at the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrigramSearchBenchmark {
+
+    private static final String[] WORDS = {"love", "war", "night", "island", "quixote", "garden", "river",
+            "memoirs", "voyage", "shadow", "winter", "empire", "letters", "mystery", "poems", "history"};
+
+    @Param({"100000"})
+    private int books;
+
+    @Param({"quixote", "voyage of the"})
+    private String term;
+
+    private Connection connection;
+    private PreparedStatement likeScan;
+    private PreparedStatement trigramLike;
+    private PreparedStatement trigramRanked;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/literalura"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "3320"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("DROP SCHEMA IF EXISTS bench_search CASCADE");
+            statement.execute("CREATE SCHEMA bench_search");
+            statement.execute("CREATE TABLE bench_search.books (id bigint PRIMARY KEY, title varchar(255), "
+                    + "downloads double precision)");
+        }
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_search.books (id, title, downloads) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= books; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, title(id));
+                insert.setDouble(3, (id * 7919L) % 100000);
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON bench_search.books USING gin (title gin_trgm_ops)");
+            statement.execute("ANALYZE bench_search.books");
+        }
+
+        likeScan = connection.prepareStatement(
+                "SELECT id FROM bench_search.books WHERE upper(title) LIKE upper(?) LIMIT 20");
+        likeScan.setString(1, "%" + term + "%");
+        trigramLike = connection.prepareStatement(
+                "SELECT id FROM bench_search.books WHERE title ILIKE '%' || ? || '%' LIMIT 20");
+        trigramLike.setString(1, term);
+        trigramRanked = connection.prepareStatement("""
+                SELECT id FROM bench_search.books
+                WHERE title ILIKE '%' || ? || '%' OR title % ?
+                ORDER BY similarity(title, ?) DESC, downloads DESC NULLS LAST, id
+                LIMIT 20""");
+        trigramRanked.setString(1, term);
+        trigramRanked.setString(2, term);
+        trigramRanked.setString(3, term);
+    }
+
+    @TearDown(Level.Trial)
+    public void drop() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS bench_search CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int upperLikeScan() throws SQLException {
+        return count(likeScan);
+    }
+
+    @Benchmark
+    public int trigramIlike() throws SQLException {
+        return count(trigramLike);
+    }
+
+    @Benchmark
+    public int trigramRanked() throws SQLException {
+        return count(trigramRanked);
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String title(int id) {
+        // Three pseudo-random words plus the id: realistic selectivity, no two titles alike
+        return "The " + WORDS[id % WORDS.length] + " of the " + WORDS[(id / 7) % WORDS.length]
+                + " and the " + WORDS[(id / 131) % WORDS.length] + " vol. " + id;
+    }
+}
@@ -1,35 +1,92 @@
 package com.alura.literalura;
 
+import com.alura.literalura.cli.Command;
+import com.alura.literalura.cli.CommandRunner;
+import com.alura.literalura.config.LiteraluraRuntimeHints;
 import com.alura.literalura.principal.Principal;
-import com.alura.literalura.repository.AuthorRepository;
-import com.alura.literalura.repository.BookRepository;
 import com.alura.literalura.service.BookService;
-import com.alura.literalura.service.GutendexService;
+import com.alura.literalura.service.CatalogExportService;
+import com.alura.literalura.service.CatalogImportService;
+import com.alura.literalura.service.DownloadRefreshService;
+import com.alura.literalura.service.LatencyReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.Banner;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+import java.util.Map;
 
 @SpringBootApplication
-public class LiteraluraApplication implements CommandLineRunner {
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(LiteraluraRuntimeHints.class)
+public class LiteraluraApplication implements CommandLineRunner, ExitCodeGenerator {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private CatalogImportService catalogImportService;
+
+	@Autowired
+	private DownloadRefreshService downloadRefreshService;
 
 	@Autowired
-	private BookRepository bookRepository;
+	private LatencyReportService latencyReportService;
 
 	@Autowired
-	private AuthorRepository authorRepository;
+	private CatalogExportService catalogExportService;
 
 	@Autowired
-	private GutendexService gutendexService;
+	private CommandRunner commandRunner;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	private int exitCode;
 
 	public static void main(String[] args) {
-		SpringApplication.run(LiteraluraApplication.class, args);
+		SpringApplication application = new SpringApplication(LiteraluraApplication.class);
+		// Commands write their results to standard output: keep the banner and startup logs out of it
+		if (!Command.words(args).isEmpty()) {
+			application.setBannerMode(Banner.Mode.OFF);
+			application.setLogStartupInfo(false);
+			application.setDefaultProperties(Map.of("logging.threshold.console", "ERROR"));
+		}
+		ConfigurableApplicationContext context = application.run(args);
+		// The api profile keeps serving requests until the process is stopped
+		if (context instanceof WebServerApplicationContext && Command.words(args).isEmpty()) {
+			return;
+		}
+		System.exit(SpringApplication.exit(context));
 	}
 
 	@Override
 	public void run(String... args) throws Exception {
-		BookService bookService = new BookService(bookRepository, authorRepository, gutendexService);
-		Principal principal = new Principal(bookService);
+		// With a command (e.g. "stats", "top --n 50"), run it and exit with its status instead of the menu
+		List<String> command = Command.words(args);
+		if (!command.isEmpty()) {
+			exitCode = commandRunner.execute(command, System.out, System.err);
+			return;
+		}
+		// With the api profile the REST API takes the place of the menu
+		if (applicationContext instanceof WebServerApplicationContext) {
+			return;
+		}
+		Principal principal = new Principal(bookService, catalogImportService, downloadRefreshService,
+				latencyReportService, catalogExportService);
 		principal.mostrarMenu();
 	}
+
+	@Override
+	public int getExitCode() {
+		return exitCode;
+	}
 }
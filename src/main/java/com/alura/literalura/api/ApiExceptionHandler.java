@@ -0,0 +1,29 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.service.BookNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns the service errors into RFC 9457 problem responses. Invalid
+ * parameters are answered by Spring itself (with
+ * {@code spring.mvc.problemdetails.enabled}) and by
+ * {@code ResponseStatusException}.
+ */
+@RestControllerAdvice
+@Profile("api")
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ProblemDetail notFound(BookNotFoundException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
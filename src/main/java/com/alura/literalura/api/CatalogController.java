@@ -0,0 +1,159 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.dto.AuthorSummary;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.dto.TitleImportReport;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.service.BookService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * REST API over {@link BookService}, under {@code /api}, with the
+ * {@code api} profile.
+ * <p>
+ * Every GET carries the {@link CatalogVersion} as {@code ETag} and
+ * {@code Last-Modified}, with {@code Cache-Control: no-cache}: clients
+ * revalidate each time, and while the catalog is unchanged the answer is a
+ * 304 decided before any query runs.
+ */
+@RestController
+@Profile("api")
+@RequestMapping("/api")
+public class CatalogController {
+
+    static final int MAX_ROWS = 1000;
+
+    private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+
+    public CatalogController(BookService bookService, CatalogVersion catalogVersion) {
+        this.bookService = bookService;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * One page of the catalog, by id.
+     *
+     * @param after Id of the last book of the previous page; none for the first
+     */
+    @GetMapping("/books")
+    public ResponseEntity<BookPage> books(@RequestParam(required = false) Long after, WebRequest request) {
+        return conditional(request, () -> {
+            Window<BookListing> page = bookService.getBooksPage(
+                    after == null ? ScrollPosition.keyset() : ScrollPosition.forward(Map.of("id", after)));
+            Long next = page.hasNext() ? page.getContent().get(page.size() - 1).id() : null;
+            return new BookPage(page.getContent(), next);
+        });
+    }
+
+    @GetMapping("/books/search")
+    public ResponseEntity<List<BookListing>> search(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit, WebRequest request) {
+        checkRows("limit", limit);
+        return conditional(request, () -> bookService.searchLocalBooks(q, limit));
+    }
+
+    @GetMapping("/books/language/{language}")
+    public ResponseEntity<List<BookListing>> booksByLanguage(@PathVariable String language, WebRequest request) {
+        return conditional(request, () -> bookService.getBooksByLanguage(language.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * The {@code n} most downloaded books, of the whole catalog or of one
+     * language.
+     */
+    @GetMapping("/books/top")
+    public ResponseEntity<List<BookListing>> top(@RequestParam(defaultValue = "10") int n,
+            @RequestParam(required = false) String lang, WebRequest request) {
+        checkRows("n", n);
+        return conditional(request, () -> lang == null
+                ? bookService.getMostDownloaded(null, n)
+                : bookService.getMostDownloadedByLanguage(lang.toLowerCase(Locale.ROOT), null, n));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<BookStatistics> statistics(WebRequest request) {
+        return conditional(request, bookService::getBookStatistics);
+    }
+
+    @GetMapping("/authors/alive")
+    public ResponseEntity<List<AuthorSummary>> authorsAlive(@RequestParam int year, WebRequest request) {
+        return conditional(request, () -> bookService.getAuthorsAliveInYear(year));
+    }
+
+    @GetMapping("/authors/born")
+    public ResponseEntity<List<AuthorSummary>> authorsBorn(@RequestParam int from, @RequestParam int to,
+            WebRequest request) {
+        if (from > to) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from no puede ser mayor que to");
+        }
+        return conditional(request, () -> bookService.getAuthorsByBirthYearRange(from, to));
+    }
+
+    /**
+     * Searches a title in Gutendex and stores the first result, see
+     * {@link BookService#searchAndSaveBook(String)}.
+     */
+    @PostMapping("/books")
+    public ResponseEntity<BookListing> searchAndSave(@RequestParam String title) {
+        Book book = bookService.searchAndSaveBook(title);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BookListing(book.getId(), book.getTitle(),
+                book.getAuthor() != null ? book.getAuthor().getName() : null, book.getLanguage(),
+                book.getDownloads()));
+    }
+
+    /**
+     * Imports many titles at once, see {@link BookService#importTitles(List)}.
+     *
+     * @param titles JSON array of titles
+     */
+    @PostMapping("/books/import")
+    public TitleImportReport importTitles(@RequestBody List<String> titles) {
+        return bookService.importTitles(titles);
+    }
+
+    /**
+     * @param books Books of the page, by id
+     * @param next  Value of {@code after} for the next page, {@code null} on
+     *              the last one
+     */
+    public record BookPage(List<BookListing> books, Long next) {
+    }
+
+    private <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> body) {
+        // Taken before the read, so the body is never older than its validator
+        CatalogVersion.Snapshot version = catalogVersion.current();
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            // 304 and validators already set on the response
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body.get());
+    }
+
+    private static void checkRows(String parameter, int value) {
+        if (value < 1 || value > MAX_ROWS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    parameter + " debe estar entre 1 y " + MAX_ROWS);
+        }
+    }
+}
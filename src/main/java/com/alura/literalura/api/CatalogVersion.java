@@ -0,0 +1,91 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.event.BooksSavedEvent;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the catalog as this process sees it, the validator of the
+ * conditional GETs of the API: it moves on every event that changes stored
+ * books, so an unchanged version means every read would return what it
+ * returned before and a revalidation is answered with 304 without touching
+ * the database.
+ * <p>
+ * Only writes made by this process are seen as events. Writes by another
+ * process on the same database (a command run, another instance) reach the
+ * caches and in-memory indexes within {@link CatalogMemoryProperties#maxAge()},
+ * so the version also moves once per max-age period: a client revalidating
+ * after that gets a fresh body, at most two periods after such a write. The
+ * version starts from the startup time, so a restart invalidates what
+ * clients hold as well.
+ */
+@Component
+@Profile("api")
+public class CatalogVersion {
+
+    /**
+     * @param etag         Weak entity tag, since compression changes the bytes
+     * @param lastModified Time of the change, in epoch milliseconds
+     */
+    public record Snapshot(String etag, long lastModified) {
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final long maxAgeMillis;
+    // Written under this
+    private long version;
+    private volatile long period;
+    private volatile Snapshot current;
+
+    public CatalogVersion(CatalogMemoryProperties properties) {
+        this.maxAgeMillis = Math.max(1, properties.maxAge().toMillis());
+        this.current = snapshot();
+    }
+
+    public Snapshot current() {
+        if (periodAt(System.currentTimeMillis()) != period) {
+            synchronized (this) {
+                long now = periodAt(System.currentTimeMillis());
+                if (now != period) {
+                    period = now;
+                    current = snapshot();
+                }
+            }
+        }
+        return current;
+    }
+
+    @EventListener
+    public void onBooksSaved(BooksSavedEvent event) {
+        advance();
+    }
+
+    @EventListener
+    public void onDownloadsRefreshed(DownloadsRefreshedEvent event) {
+        advance();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        advance();
+    }
+
+    private synchronized void advance() {
+        version++;
+        current = snapshot();
+    }
+
+    private long periodAt(long millis) {
+        return (millis - epoch) / maxAgeMillis;
+    }
+
+    // Last-Modified only has seconds: two changes within one second are told apart by the ETag alone
+    private Snapshot snapshot() {
+        return new Snapshot("W/\"" + Long.toString(epoch, 36) + "-" + period + "-" + version + "\"",
+                System.currentTimeMillis());
+    }
+}
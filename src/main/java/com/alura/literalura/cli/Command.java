@@ -0,0 +1,156 @@
+package com.alura.literalura.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A command of the non-interactive mode: a name followed by
+ * {@code --option value} pairs, e.g. {@code top --n 50 --lang es}. An option
+ * without a value (followed by another option or by nothing) is a flag and
+ * reads as {@code "true"}.
+ */
+public record Command(String name, Map<String, String> options) {
+
+    /**
+     * The words of the command in the program arguments. Arguments of the form
+     * {@code --key=value} whose key has a dot are Spring properties (such as
+     * {@code --spring.profiles.active=embedded}) and are left out. Any other
+     * {@code --key=value} stays and is rejected by {@link #parse(List)}, since
+     * command options are separated from their value by a space.
+     *
+     * @return Empty when there are no arguments besides properties, which
+     *         starts the interactive menu
+     */
+    public static List<String> words(String... args) {
+        return Arrays.stream(args)
+                .filter(arg -> !isProperty(arg))
+                .toList();
+    }
+
+    private static boolean isProperty(String arg) {
+        int equals = arg.indexOf('=');
+        return arg.startsWith("--") && equals > 0 && arg.substring(2, equals).contains(".");
+    }
+
+    /**
+     * @throws UsageException if the words are not a command with
+     *                        {@code --option [value]} pairs
+     */
+    static Command parse(List<String> words) {
+        String name = words.get(0);
+        if (name.startsWith("--")) {
+            throw new UsageException("Falta el comando antes de " + name);
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 1; i < words.size(); i++) {
+            String word = words.get(i);
+            if (!word.startsWith("--") || word.length() == 2) {
+                throw new UsageException("Argumento inesperado: " + word);
+            }
+            int equals = word.indexOf('=');
+            if (equals > 0) {
+                throw new UsageException("Separa la opcion de su valor con un espacio: "
+                        + word.substring(0, equals) + " " + word.substring(equals + 1));
+            }
+            String value = "true";
+            if (i + 1 < words.size() && !words.get(i + 1).startsWith("--")) {
+                value = words.get(++i);
+            }
+            if (options.put(word.substring(2), value) != null) {
+                throw new UsageException("Opcion repetida: " + word);
+            }
+        }
+        return new Command(name, options);
+    }
+
+    /**
+     * Splits a line into words at spaces; double quotes group words
+     * ({@code search --title "Don Quijote"}) and {@code \"} is a literal quote.
+     * An unclosed quote runs to the end of the line.
+     */
+    static List<String> split(String line) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean quoted = false;
+        boolean inWord = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                word.append('"');
+                inWord = true;
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+                inWord = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inWord) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                    inWord = false;
+                }
+            } else {
+                word.append(c);
+                inWord = true;
+            }
+        }
+        if (inWord) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * @throws UsageException if the command has an option not in {@code allowed}
+     */
+    void allowOnly(String... allowed) {
+        Set<String> names = Set.of(allowed);
+        for (String option : options.keySet()) {
+            if (!names.contains(option)) {
+                throw new UsageException("Opcion desconocida para " + name + ": --" + option);
+            }
+        }
+    }
+
+    String option(String option, String defaultValue) {
+        return options.getOrDefault(option, defaultValue);
+    }
+
+    boolean flag(String option) {
+        return options.containsKey(option);
+    }
+
+    /**
+     * @throws UsageException if the option is missing or has no value
+     */
+    String required(String option) {
+        String value = options.get(option);
+        if (value == null || value.equals("true")) {
+            throw new UsageException(name + " requiere --" + option + " <valor>");
+        }
+        return value;
+    }
+
+    /**
+     * @throws UsageException if the option is not a whole number between
+     *                        {@code min} and {@code max}
+     */
+    int intOption(String option, int defaultValue, int min, int max) {
+        String value = options.get(option);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new UsageException("--" + option + " debe ser un numero entre " + min + " y " + max);
+    }
+}
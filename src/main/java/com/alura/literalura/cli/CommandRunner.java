@@ -0,0 +1,299 @@
+package com.alura.literalura.cli;
+
+import com.alura.literalura.config.CommandServerProperties;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.dto.CenturyStatistics;
+import com.alura.literalura.dto.DownloadSummary;
+import com.alura.literalura.dto.ExportReport;
+import com.alura.literalura.dto.GroupStatistics;
+import com.alura.literalura.dto.ImportReport;
+import com.alura.literalura.dto.RefreshReport;
+import com.alura.literalura.dto.TitleImportReport;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.principal.ConsoleRenderer;
+import com.alura.literalura.service.BookListingExporter;
+import com.alura.literalura.service.BookService;
+import com.alura.literalura.service.CatalogExportService;
+import com.alura.literalura.service.CatalogImportService;
+import com.alura.literalura.service.DownloadRefreshService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the commands of the non-interactive mode, for scripted jobs:
+ * {@code search}, {@code import}, {@code stats}, {@code top}, {@code export},
+ * {@code refresh} and {@code server} (see {@link #HELP}). Each one calls the
+ * same service as its menu option and returns an exit status:
+ * {@link #EXIT_OK}, {@link #EXIT_FAILURE} when the operation fails and
+ * {@link #EXIT_USAGE} when the command line is wrong.
+ * <p>
+ * Results are written as plain text for scripts: {@code key<TAB>value} lines,
+ * or tab-separated rows under a header, with dots as decimal separators.
+ * Errors go to {@code err}.
+ */
+@Component
+public class CommandRunner {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    static final int DEFAULT_PORT = 7070;
+
+    static final String HELP = """
+            Uso: literalura <comando> [--opcion valor ...]
+            Sin comando se abre el menu interactivo.
+
+              search --title <titulo>        Busca un libro en Gutendex y lo guarda
+              import --file <archivo>        Importa los titulos de un .txt o .csv
+              import --all                   Importa el catalogo completo de Gutendex
+              stats                          Estadisticas de descargas
+              top [--n 10] [--lang <codigo>] Libros mas descargados
+              export [--file <archivo>] [--format csv|jsonl]
+                                             Exporta el catalogo (sin --file, a la salida estandar)
+              refresh                        Actualiza las descargas desde Gutendex
+              server [--port 7070]           Atiende comandos por TCP en 127.0.0.1; cada conexion
+                                             empieza con 'auth <token>' (token en data/command-server.token)
+              help                           Muestra esta ayuda
+
+            Codigos de salida: 0 correcto, 1 error, 2 comando invalido.
+            """;
+
+    private final BookService bookService;
+    private final CatalogImportService catalogImportService;
+    private final DownloadRefreshService downloadRefreshService;
+    private final CatalogExportService catalogExportService;
+    private final CommandServerProperties serverProperties;
+
+    public CommandRunner(BookService bookService, CatalogImportService catalogImportService,
+            DownloadRefreshService downloadRefreshService, CatalogExportService catalogExportService,
+            CommandServerProperties serverProperties) {
+        this.bookService = bookService;
+        this.catalogImportService = catalogImportService;
+        this.downloadRefreshService = downloadRefreshService;
+        this.catalogExportService = catalogExportService;
+        this.serverProperties = serverProperties;
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @param words Command name and options, see {@link Command#words(String...)}
+     * @param out   Destination of the results
+     * @param err   Destination of the error messages
+     * @return Exit status
+     */
+    public int execute(List<String> words, PrintStream out, PrintStream err) {
+        try {
+            Command command = Command.parse(words);
+            return switch (command.name()) {
+                case "search" -> search(command, out);
+                case "import" -> importBooks(command, out, err);
+                case "stats" -> statistics(command, out);
+                case "top" -> top(command, out);
+                case "export" -> export(command, out);
+                case "refresh" -> refresh(command, out);
+                case "server" -> serve(command, out);
+                case "help" -> {
+                    out.print(HELP);
+                    out.flush();
+                    yield EXIT_OK;
+                }
+                default -> throw new UsageException("Comando desconocido: " + command.name());
+            };
+        } catch (UsageException e) {
+            err.println(e.getMessage());
+            err.println("Use 'help' para ver los comandos disponibles");
+            err.flush();
+            return EXIT_USAGE;
+        } catch (RuntimeException e) {
+            err.println("Error: " + e.getMessage());
+            err.flush();
+            return EXIT_FAILURE;
+        }
+    }
+
+    private int search(Command command, PrintStream out) {
+        command.allowOnly("title");
+        Book book = bookService.searchAndSaveBook(command.required("title"));
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        field(console, "id").number(book.getId()).endLine();
+        field(console, "gutenberg_id").line(cell(book.getGutenbergId()));
+        field(console, "title").line(cell(book.getTitle()));
+        field(console, "author").line(cell(book.getAuthor() != null ? book.getAuthor().getName() : null));
+        field(console, "language").line(cell(book.getLanguage()));
+        field(console, "downloads").number(book.getDownloads(), 0).endLine();
+        console.flush();
+        return EXIT_OK;
+    }
+
+    private int importBooks(Command command, PrintStream out, PrintStream err) {
+        command.allowOnly("file", "all");
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        if (command.flag("all") == command.flag("file")) {
+            throw new UsageException("import requiere --file <archivo> o --all");
+        }
+        if (command.flag("all")) {
+            ImportReport report = catalogImportService.importCatalog();
+            field(console, "pages").number(report.pages()).endLine();
+            field(console, "books_read").number(report.booksRead()).endLine();
+            field(console, "books_inserted").number(report.booksInserted()).endLine();
+            field(console, "elapsed_ms").number(report.elapsed().toMillis()).endLine();
+            field(console, "books_per_second").number(report.booksPerSecond(), 1).endLine();
+            console.flush();
+            return EXIT_OK;
+        }
+
+        TitleImportReport report = bookService.importTitlesFromFile(Path.of(command.required("file")));
+        field(console, "requested").number(report.requested()).endLine();
+        field(console, "imported").number(report.imported()).endLine();
+        field(console, "already_stored").number(report.alreadyStored()).endLine();
+        field(console, "not_found").number(report.notFound().size()).endLine();
+        field(console, "failed").number(report.failed().size()).endLine();
+        console.flush();
+        report.notFound().forEach(title -> err.println("No encontrado: " + title));
+        report.failed().forEach(title -> err.println("Fallido: " + title));
+        err.flush();
+        return report.failed().isEmpty() ? EXIT_OK : EXIT_FAILURE;
+    }
+
+    private int statistics(Command command, PrintStream out) {
+        command.allowOnly();
+        BookStatistics statistics = bookService.getBookStatistics();
+        DownloadSummary downloads = statistics.downloads();
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        field(console, "books").number(downloads.books()).endLine();
+        field(console, "downloads_total").number(downloads.totalDownloads(), 0).endLine();
+        field(console, "downloads_average").number(downloads.averageDownloads(), 2).endLine();
+        field(console, "downloads_min").number(downloads.minDownloads(), 0).endLine();
+        field(console, "downloads_max").number(downloads.maxDownloads(), 0).endLine();
+        field(console, "downloads_median").number(downloads.medianDownloads(), 2).endLine();
+        field(console, "downloads_p90").number(downloads.p90Downloads(), 2).endLine();
+        // Groups as rows: kind, key, books, total downloads (and authors for centuries)
+        for (GroupStatistics language : statistics.byLanguage()) {
+            group(console, "language", language);
+        }
+        for (GroupStatistics author : statistics.topAuthors()) {
+            group(console, "author", author);
+        }
+        for (CenturyStatistics century : statistics.byCentury()) {
+            field(console, "century").number(century.startYear()).text('\t')
+                    .number(century.authors()).text('\t')
+                    .number(century.books()).text('\t')
+                    .number(century.totalDownloads(), 0).endLine();
+        }
+        console.flush();
+        return EXIT_OK;
+    }
+
+    private int top(Command command, PrintStream out) {
+        command.allowOnly("n", "lang");
+        int n = command.intOption("n", 10, 1, 10_000);
+        String language = command.option("lang", null);
+        if ("true".equals(language)) {
+            throw new UsageException("top requiere --lang <codigo>");
+        }
+        List<BookListing> books = language == null
+                ? bookService.getMostDownloaded(null, n)
+                : bookService.getMostDownloadedByLanguage(language.toLowerCase(Locale.ROOT), null, n);
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        console.line("rank\tid\ttitle\tauthor\tlanguage\tdownloads");
+        int rank = 1;
+        for (BookListing book : books) {
+            console.number(rank++).text('\t').number(book.id()).text('\t')
+                    .text(cell(book.title())).text('\t')
+                    .text(cell(book.authorName())).text('\t')
+                    .text(cell(book.language())).text('\t')
+                    .number(book.downloads(), 0).endLine();
+        }
+        console.flush();
+        return EXIT_OK;
+    }
+
+    private int export(Command command, PrintStream out) {
+        command.allowOnly("file", "format");
+        String format = command.option("format", null);
+        if (!command.flag("file")) {
+            catalogExportService.exportBooks(out, format(format == null ? "csv" : format));
+            return EXIT_OK;
+        }
+
+        Path file = Path.of(command.required("file"));
+        if (format != null && format(format) != formatOf(file)) {
+            throw new UsageException("--format " + format + " no coincide con la extension de " + file);
+        }
+        ExportReport report = catalogExportService.exportBooks(file);
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        field(console, "file").line(report.file().toString());
+        field(console, "rows").number(report.rows()).endLine();
+        field(console, "elapsed_ms").number(report.elapsed().toMillis()).endLine();
+        field(console, "rows_per_second").number(report.rowsPerSecond(), 0).endLine();
+        console.flush();
+        return EXIT_OK;
+    }
+
+    private int refresh(Command command, PrintStream out) {
+        command.allowOnly();
+        RefreshReport report = downloadRefreshService.refresh();
+        ConsoleRenderer console = new ConsoleRenderer(out);
+        field(console, "requests").number(report.requests()).endLine();
+        field(console, "books_checked").number(report.booksChecked()).endLine();
+        field(console, "books_updated").number(report.booksUpdated()).endLine();
+        field(console, "completed").line(String.valueOf(report.completed()));
+        console.flush();
+        return EXIT_OK;
+    }
+
+    private int serve(Command command, PrintStream out) {
+        command.allowOnly("port");
+        int port = command.intOption("port", DEFAULT_PORT, 0, 65_535);
+        try (CommandServer server = new CommandServer(this, port, serverProperties.tokenFile())) {
+            out.println("Atendiendo comandos en 127.0.0.1:" + server.port() + " con el token de "
+                    + serverProperties.tokenFile() + " ('shutdown' para terminar)");
+            out.flush();
+            server.serve();
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo abrir el puerto " + port + ": " + e.getMessage(), e);
+        }
+        return EXIT_OK;
+    }
+
+    private static BookListingExporter.Format format(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "csv" -> BookListingExporter.Format.CSV;
+            case "jsonl", "ndjson" -> BookListingExporter.Format.JSON_LINES;
+            default -> throw new UsageException("--format debe ser csv o jsonl: " + name);
+        };
+    }
+
+    private static BookListingExporter.Format formatOf(Path file) {
+        try {
+            return BookListingExporter.Format.of(file);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+    }
+
+    private static void group(ConsoleRenderer console, String kind, GroupStatistics group) {
+        field(console, kind).text(cell(group.name())).text('\t')
+                .number(group.books()).text('\t')
+                .number(group.totalDownloads(), 0).endLine();
+    }
+
+    private static ConsoleRenderer field(ConsoleRenderer console, String key) {
+        return console.text(key).text('\t');
+    }
+
+    // Keeps each value on one line and in one column
+    private static String cell(Object value) {
+        if (value == null) {
+            return "-";
+        }
+        return value.toString().replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,185 @@
+package com.alura.literalura.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server mode: runs the commands of a {@link CommandRunner} sent over TCP on
+ * the loopback interface, so a batch of jobs pays the application startup
+ * once, e.g. {@code echo "top --n 50 --lang es" | nc 127.0.0.1 7070}.
+ * <p>
+ * Each line is one command, in UTF-8 and with the syntax of the program
+ * arguments (see {@link Command#split(String)}). The reply is what the
+ * command writes, results and errors alike, followed by a line
+ * {@code exit <status>}. A connection may send any number of commands;
+ * {@code quit} closes it and {@code shutdown} stops the server once the
+ * commands in progress end. Up to {@value #WORKERS} connections are served at
+ * the same time, the rest wait; a connection idle for {@link #IDLE_TIMEOUT}
+ * is dropped.
+ * <p>
+ * Commands such as {@code import --file} and {@code export --file} read and
+ * write files with the permissions of the user running the server, and any
+ * local user can connect to the loopback port. So the server creates a random
+ * token at startup, writes it to a file only its owner can read, and a
+ * connection must open with {@code auth <token>}; otherwise it gets
+ * {@code exit 1} and is closed. The token file is deleted on {@link #close()}.
+ */
+public class CommandServer implements Closeable {
+
+    static final int WORKERS = 4;
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private final CommandRunner runner;
+    private final Path tokenFile;
+    private final byte[] token;
+    private final ServerSocket socket;
+    private final ExecutorService workers;
+
+    /**
+     * @param port      Port on 127.0.0.1; 0 picks a free one
+     * @param tokenFile File the access token is written to, replacing any
+     *                  token of an earlier run
+     */
+    public CommandServer(CommandRunner runner, int port, Path tokenFile) throws IOException {
+        this.runner = runner;
+        this.tokenFile = tokenFile;
+        this.socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        try {
+            this.token = writeToken(tokenFile);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        this.workers = Executors.newFixedThreadPool(WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "command-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until {@code shutdown} or {@link #close()}.
+     */
+    public void serve() throws IOException {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (SocketException e) {
+                if (socket.isClosed()) {
+                    break;
+                }
+                throw e;
+            }
+            workers.execute(() -> handle(client));
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        Files.deleteIfExists(tokenFile);
+    }
+
+    private void handle(Socket client) {
+        try (client;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), false,
+                     StandardCharsets.UTF_8)) {
+            client.setSoTimeout((int) IDLE_TIMEOUT.toMillis());
+            if (!authenticated(in.readLine())) {
+                out.println("No autorizado: la conexion debe empezar con 'auth <token>'");
+                out.println("exit " + CommandRunner.EXIT_FAILURE);
+                out.flush();
+                return;
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                List<String> words = Command.split(line);
+                if (words.isEmpty()) {
+                    continue;
+                }
+                String name = words.get(0);
+                if (name.equals("quit")) {
+                    break;
+                }
+                if (name.equals("shutdown")) {
+                    out.println("exit " + CommandRunner.EXIT_OK);
+                    out.flush();
+                    close();
+                    break;
+                }
+                int status;
+                if (name.equals("server")) {
+                    out.println("Ya en modo servidor");
+                    status = CommandRunner.EXIT_USAGE;
+                } else {
+                    status = runner.execute(words, out, out);
+                }
+                out.println("exit " + status);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client gone or idle: nothing left to answer
+        }
+    }
+
+    private boolean authenticated(String line) {
+        if (line == null || !line.startsWith("auth ")) {
+            return false;
+        }
+        byte[] sent = line.substring("auth ".length()).trim().getBytes(StandardCharsets.US_ASCII);
+        // Constant time, so the token cannot be guessed byte by byte from the response time
+        return MessageDigest.isEqual(sent, token);
+    }
+
+    // Owner-only permissions are set when the file is created, so it is never readable by others
+    private static byte[] writeToken(Path file) throws IOException {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Files.deleteIfExists(file);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(file);
+        }
+        Files.writeString(file, token + System.lineSeparator(), StandardCharsets.US_ASCII);
+        return token.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,13 @@
+package com.alura.literalura.cli;
+
+/**
+ * A command line that cannot be run as written: unknown command or option,
+ * missing or malformed value. Ends the command with
+ * {@link CommandRunner#EXIT_USAGE}.
+ */
+public class UsageException extends RuntimeException {
+
+    public UsageException(String message) {
+        super(message);
+    }
+}
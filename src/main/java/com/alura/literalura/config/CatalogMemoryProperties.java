@@ -0,0 +1,20 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory catalog structures (search index, lifespan index
+ * and download rankings), bound from {@code catalog.memory.*}.
+ *
+ * @param maxAge How long a structure is served after it was loaded from the
+ *               database. Writes made by this process keep it current; writes
+ *               made by another process (a command run, the api profile) show
+ *               up once it is reloaded
+ */
+@ConfigurationProperties(prefix = "catalog.memory")
+public record CatalogMemoryProperties(
+        @DefaultValue("5m") Duration maxAge) {
+}
@@ -0,0 +1,18 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the {@code server} command, bound from {@code command-server.*}.
+ *
+ * @param tokenFile File the server writes its access token to (readable by
+ *                  the owner only) while it runs; clients must send that token
+ *                  before any command
+ */
+@ConfigurationProperties(prefix = "command-server")
+public record CommandServerProperties(
+        @DefaultValue("./data/command-server.token") Path tokenFile) {
+}
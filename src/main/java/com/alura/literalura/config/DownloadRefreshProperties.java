@@ -0,0 +1,35 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the background download count refresh, bound from
+ * {@code downloads.refresh.*}.
+ *
+ * @param enabled           Whether the refresh runs on a schedule; it can
+ *                          always be started by hand
+ * @param initialDelay      Delay between startup and the first run
+ * @param interval          Delay between the end of a run and the next one
+ * @param batchSize         Books per Gutendex request (Gutendex pages at 32)
+ * @param requestsPerSecond Maximum Gutendex request rate of the refresher
+ */
+@ConfigurationProperties(prefix = "downloads.refresh")
+public record DownloadRefreshProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5m") Duration initialDelay,
+        @DefaultValue("12h") Duration interval,
+        @DefaultValue("32") int batchSize,
+        @DefaultValue("1") double requestsPerSecond) {
+
+    public DownloadRefreshProperties {
+        if (batchSize < 1 || batchSize > 32) {
+            throw new IllegalArgumentException("downloads.refresh.batch-size must be between 1 and 32");
+        }
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("downloads.refresh.requests-per-second must be positive");
+        }
+    }
+}
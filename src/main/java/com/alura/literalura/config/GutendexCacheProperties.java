@@ -0,0 +1,22 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the Gutendex response cache, bound from {@code gutendex.cache.*}.
+ *
+ * @param maxEntries  Maximum number of cached search terms; the least recently
+ *                    used one is evicted beyond that
+ * @param ttl         How long a response stays valid after it was fetched
+ * @param persistFile File the cache is loaded from at startup and saved to at
+ *                    shutdown; empty to keep the cache in memory only
+ */
+@ConfigurationProperties(prefix = "gutendex.cache")
+public record GutendexCacheProperties(
+        @DefaultValue("1000") int maxEntries,
+        @DefaultValue("6h") Duration ttl,
+        @DefaultValue("") String persistFile) {
+}
@@ -0,0 +1,47 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * HTTP client settings for the Gutendex API, bound from {@code gutendex.*}.
+ *
+ * @param baseUrl        Books endpoint, e.g. {@code https://gutendex.com/books/}
+ * @param connectTimeout Timeout to establish a connection
+ * @param requestTimeout Timeout for a whole request, response headers included;
+ *                       also the longest wait between retries, so an answer
+ *                       asking for a longer {@code Retry-After} is not retried
+ * @param maxConcurrency Maximum number of requests in flight at once
+ * @param maxRetries     Retries after a 429/5xx answer or an I/O error
+ * @param initialBackoff Delay before the first retry; doubled on each attempt
+ * @param virtualThreads Run requests on virtual threads when the JVM has them
+ *                       (Java 21+); otherwise a pool of {@code maxConcurrency}
+ *                       platform threads is used
+ */
+@ConfigurationProperties(prefix = "gutendex")
+public record GutendexProperties(
+        @DefaultValue("https://gutendex.com/books/") String baseUrl,
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("30s") Duration requestTimeout,
+        @DefaultValue("16") int maxConcurrency,
+        @DefaultValue("3") int maxRetries,
+        @DefaultValue("500ms") Duration initialBackoff,
+        @DefaultValue("true") boolean virtualThreads) {
+
+    public static GutendexProperties defaults() {
+        return new GutendexProperties("https://gutendex.com/books/", Duration.ofSeconds(5), Duration.ofSeconds(30),
+                16, 3, Duration.ofMillis(500), true);
+    }
+
+    public GutendexProperties withBaseUrl(String baseUrl) {
+        return new GutendexProperties(baseUrl, connectTimeout, requestTimeout, maxConcurrency, maxRetries,
+                initialBackoff, virtualThreads);
+    }
+
+    public GutendexProperties withRetries(int maxRetries, Duration initialBackoff) {
+        return new GutendexProperties(baseUrl, connectTimeout, requestTimeout, maxConcurrency, maxRetries,
+                initialBackoff, virtualThreads);
+    }
+}
@@ -0,0 +1,17 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the in-memory download rankings, bound from {@code leaderboard.*}.
+ *
+ * @param capacity        Books kept per ranking; deeper pages are read from the database
+ * @param maxAuthorBoards Per-author rankings kept at once; the least recently
+ *                        used one is dropped beyond that
+ */
+@ConfigurationProperties(prefix = "leaderboard")
+public record LeaderboardProperties(
+        @DefaultValue("100") int capacity,
+        @DefaultValue("256") int maxAuthorBoards) {
+}
@@ -0,0 +1,57 @@
+package com.alura.literalura.config;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexPageInfo;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflection and resource hints for the native image (Maven profile
+ * {@code native}), for what Spring AOT cannot see on its own: types that are
+ * only reached by reflection or by name, and files read from the class path.
+ */
+public class LiteraluraRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Gutendex responses and the Gutendex cache file, bound by a hand-made Jackson ObjectMapper
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                GutendexResponseDTO.class, GutendexPageInfo.class, BookDTO.class, AuthorDTO.class);
+        hints.reflection().registerType(TypeReference.of("com.alura.literalura.service.GutendexCache$PersistedEntry"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.ACCESS_DECLARED_FIELDS);
+
+        // Entities: Hibernate reads and writes their fields and creates them through the no-arg constructor
+        for (Class<?> entity : List.of(Book.class, Author.class)) {
+            hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.ACCESS_DECLARED_FIELDS);
+        }
+
+        // Classes loaded by the names in application.properties: JDBC drivers and the JCache provider
+        for (String type : List.of("org.postgresql.Driver", "org.postgresql.ssl.LibPQFactory", "org.h2.Driver",
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.resources().registerPattern("org/postgresql/driverconfig.properties");
+
+        // Looked up by name, so virtual threads are used when the image is built on Java 21+
+        hints.reflection().registerType(Executors.class, type -> type.withMethod("newVirtualThreadPerTaskExecutor",
+                List.of(), ExecutableMode.INVOKE));
+
+        // Flyway only registers db/migration itself, and the migrations live in one folder per vendor
+        hints.resources().registerPattern("db/migration/postgresql/*.sql");
+        hints.resources().registerPattern("db/migration/h2/*.sql");
+        hints.resources().registerPattern("caffeine.conf");
+    }
+}
@@ -0,0 +1,21 @@
+package com.alura.literalura.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the Prometheus scrape endpoint, bound from
+ * {@code metrics.endpoint.*}. The application has no web server, so the
+ * endpoint is a small HTTP listener of its own.
+ *
+ * @param enabled Whether to open the endpoint at startup
+ * @param host    Address to listen on; loopback by default, so the metrics
+ *                are not exposed to the network
+ * @param port    Port to listen on; the metrics are served at {@code /metrics}
+ */
+@ConfigurationProperties(prefix = "metrics.endpoint")
+public record MetricsEndpointProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("127.0.0.1") String host,
+        @DefaultValue("9464") int port) {
+}
@@ -0,0 +1,13 @@
+package com.alura.literalura.dto;
+
+/**
+ * Read-only row for the author screens: the author columns without the
+ * bibliography.
+ *
+ * @param id        Author id
+ * @param name      Author name
+ * @param birthYear Year of birth, {@code null} if unknown
+ * @param deathYear Year of death, {@code null} if unknown or still alive
+ */
+public record AuthorSummary(Long id, String name, Integer birthYear, Integer deathYear) {
+}
@@ -7,6 +7,7 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record BookDTO(
+        Long id,
         String title,
         List<AuthorDTO> authors,
         List<String> languages,
@@ -0,0 +1,15 @@
+package com.alura.literalura.dto;
+
+/**
+ * Read-only row for the book screens, selected together with the author name
+ * in a single query instead of loading {@code Book} and {@code Author}
+ * entities.
+ *
+ * @param id         Book id
+ * @param title      Book title
+ * @param authorName Name of the author, {@code null} if unknown
+ * @param language   Language code
+ * @param downloads  Download count
+ */
+public record BookListing(Long id, String title, String authorName, String language, Double downloads) {
+}
@@ -0,0 +1,16 @@
+package com.alura.literalura.dto;
+
+import java.util.List;
+
+/**
+ * Catalog statistics computed in the database: the memory they take depends
+ * on the number of groups, not on the number of books.
+ *
+ * @param downloads  Totals, extremes and percentiles of the download counts
+ * @param byLanguage One entry per language, most books first
+ * @param topAuthors Authors with the most downloads, best first
+ * @param byCentury  One entry per century of birth of the authors, oldest first
+ */
+public record BookStatistics(DownloadSummary downloads, List<GroupStatistics> byLanguage,
+        List<GroupStatistics> topAuthors, List<CenturyStatistics> byCentury) {
+}
@@ -0,0 +1,18 @@
+package com.alura.literalura.dto;
+
+/**
+ * Counters of one region of the Hibernate second-level or query cache since
+ * startup.
+ *
+ * @param region Region name, as configured in {@code caffeine.conf}
+ * @param hits   Lookups answered from the region
+ * @param misses Lookups that went to the database
+ * @param puts   Entries stored in the region
+ */
+public record CacheRegionStats(String region, long hits, long misses, long puts) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,20 @@
+package com.alura.literalura.dto;
+
+/**
+ * Point-in-time counters of an in-process cache.
+ *
+ * @param hits        Lookups answered from the cache
+ * @param misses      Lookups that had to load the value
+ * @param evictions   Entries dropped to respect the size bound
+ * @param expirations Entries dropped because their TTL elapsed
+ * @param coalesced   Misses that waited for a load already in flight instead
+ *                    of starting their own
+ * @param size        Entries currently cached
+ */
+public record CacheStats(long hits, long misses, long evictions, long expirations, long coalesced, int size) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
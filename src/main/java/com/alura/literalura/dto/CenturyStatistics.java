@@ -0,0 +1,16 @@
+package com.alura.literalura.dto;
+
+/**
+ * Authors and books grouped by the century in which the author was born.
+ *
+ * @param startYear      First year of the century (1800 for 1800-1899, -400 for -400 to -301)
+ * @param authors        Number of authors born in it
+ * @param books          Number of books by those authors
+ * @param totalDownloads Sum of the download counts of those books
+ */
+public record CenturyStatistics(Integer startYear, Long authors, Long books, Double totalDownloads) {
+
+    public int endYear() {
+        return startYear + 99;
+    }
+}
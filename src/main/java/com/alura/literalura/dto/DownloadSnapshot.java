@@ -0,0 +1,11 @@
+package com.alura.literalura.dto;
+
+/**
+ * Stored download count of a book, as read by the download refresher.
+ *
+ * @param id          Book id
+ * @param gutenbergId Project Gutenberg id used to look the book up in Gutendex
+ * @param downloads   Download count currently stored
+ */
+public record DownloadSnapshot(Long id, Long gutenbergId, Double downloads) {
+}
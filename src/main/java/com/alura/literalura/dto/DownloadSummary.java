@@ -0,0 +1,18 @@
+package com.alura.literalura.dto;
+
+/**
+ * Download figures over the whole catalog, computed by a single aggregate
+ * query. Everything but {@code books} and {@code totalDownloads} is
+ * {@code null} when no book has a download count.
+ *
+ * @param books            Number of books
+ * @param totalDownloads   Sum of the download counts
+ * @param averageDownloads Mean download count
+ * @param minDownloads     Lowest download count
+ * @param maxDownloads     Highest download count
+ * @param medianDownloads  50th percentile (interpolated)
+ * @param p90Downloads     90th percentile (interpolated)
+ */
+public record DownloadSummary(Long books, Double totalDownloads, Double averageDownloads, Double minDownloads,
+        Double maxDownloads, Double medianDownloads, Double p90Downloads) {
+}
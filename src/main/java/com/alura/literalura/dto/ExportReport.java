@@ -0,0 +1,19 @@
+package com.alura.literalura.dto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Summary of an export of the catalog to a file.
+ *
+ * @param file    File written
+ * @param rows    Number of books written
+ * @param elapsed Wall time of the whole export, queries included
+ */
+public record ExportReport(Path file, long rows, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return rows * 1000.0 / millis;
+    }
+}
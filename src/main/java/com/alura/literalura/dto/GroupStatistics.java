@@ -0,0 +1,12 @@
+package com.alura.literalura.dto;
+
+/**
+ * Book count and downloads of one group of books (a language, an author).
+ *
+ * @param name             Group key: language code or author name
+ * @param books            Number of books in the group
+ * @param totalDownloads   Sum of their download counts
+ * @param averageDownloads Mean download count, {@code null} if none is known
+ */
+public record GroupStatistics(String name, Long books, Double totalDownloads, Double averageDownloads) {
+}
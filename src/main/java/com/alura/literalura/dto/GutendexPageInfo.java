@@ -0,0 +1,11 @@
+package com.alura.literalura.dto;
+
+/**
+ * Paging header of a Gutendex response, returned by the streaming fetch path
+ * where the results themselves are handed out one by one.
+ */
+public record GutendexPageInfo(
+        Integer count,
+        String next,
+        String previous) {
+}
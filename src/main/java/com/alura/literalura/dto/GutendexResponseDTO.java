@@ -6,5 +6,7 @@ import java.util.List;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record GutendexResponseDTO(
         Integer count,
+        String next,
+        String previous,
         List<BookDTO> results) {
 }
@@ -0,0 +1,19 @@
+package com.alura.literalura.dto;
+
+import java.time.Duration;
+
+/**
+ * Summary of a bulk catalog import run.
+ *
+ * @param pages         Number of Gutendex pages fetched
+ * @param booksRead     Number of books decoded from those pages
+ * @param booksInserted Number of books actually inserted (duplicates are skipped)
+ * @param elapsed       Wall time of the whole run
+ */
+public record ImportReport(long pages, long booksRead, long booksInserted, Duration elapsed) {
+
+    public double booksPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return booksRead * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.alura.literalura.dto;
+
+/**
+ * Latency of one instrumented operation, read from its Micrometer timer.
+ * Durations are in milliseconds; the percentiles and the maximum cover the
+ * last few minutes only, the mean covers every call since startup.
+ *
+ * @param group      What was timed: {@code gutendex}, {@code repository} or
+ *                   {@code service}
+ * @param operation  Phase of a Gutendex call ({@code network} or
+ *                   {@code decode}), or {@code Class.method}
+ * @param count      Calls since startup
+ * @param meanMillis Mean duration
+ * @param maxMillis  Longest call
+ * @param p50Millis  Median; NaN when the timer has no percentiles configured
+ * @param p95Millis  95th percentile; NaN when not configured
+ * @param p99Millis  99th percentile; NaN when not configured
+ */
+public record LatencySummary(String group, String operation, long count, double meanMillis, double maxMillis,
+        double p50Millis, double p95Millis, double p99Millis) {
+}
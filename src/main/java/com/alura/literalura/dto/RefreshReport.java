@@ -0,0 +1,13 @@
+package com.alura.literalura.dto;
+
+/**
+ * Outcome of a run of the download refresher.
+ *
+ * @param requests     Number of Gutendex requests made
+ * @param booksChecked Number of stored books compared with Gutendex
+ * @param booksUpdated Number of books whose download count changed
+ * @param completed    Whether the run reached the end of the catalog; false
+ *                     if it was paused, the next run continues where it stopped
+ */
+public record RefreshReport(int requests, long booksChecked, long booksUpdated, boolean completed) {
+}
@@ -0,0 +1,16 @@
+package com.alura.literalura.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of importing a list of titles.
+ *
+ * @param requested     Distinct titles read from the input
+ * @param imported      Books newly stored
+ * @param alreadyStored Books that were already in the database
+ * @param notFound      Titles without results in Gutendex
+ * @param failed        Titles that could not be fetched or saved
+ */
+public record TitleImportReport(int requested, int imported, int alreadyStored, List<String> notFound,
+        List<String> failed) {
+}
@@ -0,0 +1,14 @@
+package com.alura.literalura.event;
+
+import com.alura.literalura.model.Book;
+
+import java.util.List;
+
+/**
+ * Published after new books (and their authors) have been committed through
+ * JPA, so in-memory views of the catalog can be updated incrementally.
+ *
+ * @param books The newly stored books, with their authors set
+ */
+public record BooksSavedEvent(List<Book> books) {
+}
@@ -0,0 +1,9 @@
+package com.alura.literalura.event;
+
+/**
+ * Published after a bulk write that bypasses JPA (e.g. the JDBC catalog
+ * import). Listeners cannot know what changed and should rebuild or drop
+ * whatever they derived from the database.
+ */
+public record CatalogChangedEvent() {
+}
@@ -0,0 +1,11 @@
+package com.alura.literalura.event;
+
+import java.util.Map;
+
+/**
+ * Published after the download refresher has committed new download counts.
+ *
+ * @param downloadsById New download count of each changed book, by book id
+ */
+public record DownloadsRefreshedEvent(Map<Long, Double> downloadsById) {
+}
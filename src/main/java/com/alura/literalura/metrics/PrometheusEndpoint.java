@@ -0,0 +1,90 @@
+package com.alura.literalura.metrics;
+
+import com.alura.literalura.config.MetricsEndpointProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the meters in the Prometheus text format at
+ * {@code http://<metrics.endpoint.host>:<metrics.endpoint.port>/metrics},
+ * when {@code metrics.endpoint.enabled} is on. Scrapes are answered one at a
+ * time on the listener thread.
+ * <p>
+ * Nothing depends on it, so it is never lazy: with
+ * {@code spring.main.lazy-initialization} it would not start at all.
+ */
+@Component
+@Lazy(false)
+public class PrometheusEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(PrometheusEndpoint.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+    private final MetricsEndpointProperties properties;
+    private HttpServer server;
+
+    public PrometheusEndpoint(PrometheusMeterRegistry registry, MetricsEndpointProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(properties.host(), properties.port()), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the metrics endpoint on "
+                    + properties.host() + ":" + properties.port(), e);
+        }
+        server.createContext("/metrics", this::scrape);
+        server.start();
+        log.info("Prometheus metrics at http://{}:{}/metrics", properties.host(), port());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * @return The port the endpoint listens on (the one picked by the system
+     *         when configured as 0), or -1 when it is disabled
+     */
+    public int port() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private void scrape(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
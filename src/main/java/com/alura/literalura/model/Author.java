@@ -2,15 +2,21 @@ package com.alura.literalura.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 public class Author {
 
+    // Sequence ids with pooled allocation so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -19,7 +25,7 @@ public class Author {
     private Integer birthYear;
     private Integer deathYear;
 
-    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Book> books = new ArrayList<>();
 
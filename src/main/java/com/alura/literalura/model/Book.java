@@ -1,35 +1,76 @@
 package com.alura.literalura.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = @Index(name = "uk_books_gutenberg_id", columnList = "gutenberg_id", unique = true))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
 
+    // Sequence ids with pooled allocation so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true)
+    // Project Gutenberg id, as returned by Gutendex: the natural key used to dedupe imports.
+    // Null for books stored before it was recorded
+    @Column(name = "gutenberg_id")
+    private Long gutenbergId;
+
     private String title;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // First author, kept on the row so listings and rankings need no join table
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     private Author author;
 
+    // Every author in Gutendex order; the first one is also stored as author
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "book_authors",
+            joinColumns = @JoinColumn(name = "book_id"),
+            inverseJoinColumns = @JoinColumn(name = "author_id"))
+    @OrderColumn(name = "position")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-authors")
+    private List<Author> authors = new ArrayList<>();
+
+    // First language, kept on the row for the language filters and rankings
     private String language;
 
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "book_languages", joinColumns = @JoinColumn(name = "book_id"))
+    @Column(name = "language", nullable = false)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-languages")
+    private Set<String> languages = new LinkedHashSet<>();
+
     private Double downloads;
 
     public Book() {
     }
 
     public Book(String title, Author author, String language, Double downloads) {
+        this(null, title, author, language, downloads);
+    }
+
+    public Book(Long gutenbergId, String title, Author author, String language, Double downloads) {
+        this.gutenbergId = gutenbergId;
         this.title = title;
         this.author = author;
         this.language = language;
         this.downloads = downloads;
+        if (author != null) {
+            authors.add(author);
+        }
+        if (language != null) {
+            languages.add(language);
+        }
     }
 
     public Long getId() {
@@ -40,6 +81,14 @@ public class Book {
         this.id = id;
     }
 
+    public Long getGutenbergId() {
+        return gutenbergId;
+    }
+
+    public void setGutenbergId(Long gutenbergId) {
+        this.gutenbergId = gutenbergId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -56,6 +105,14 @@ public class Book {
         this.author = author;
     }
 
+    public List<Author> getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(List<Author> authors) {
+        this.authors = authors;
+    }
+
     public String getLanguage() {
         return language;
     }
@@ -64,6 +121,14 @@ public class Book {
         this.language = language;
     }
 
+    public Set<String> getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(Set<String> languages) {
+        this.languages = languages;
+    }
+
     public Double getDownloads() {
         return downloads;
     }
@@ -76,8 +141,9 @@ public class Book {
     public String toString() {
         return "Book{" +
                 "id=" + id +
+                ", gutenbergId=" + gutenbergId +
                 ", title='" + title + '\'' +
-                ", author=" + author +
+                ", authorId=" + (author != null ? author.getId() : null) +
                 ", language='" + language + '\'' +
                 ", downloads=" + downloads +
                 '}';
@@ -0,0 +1,148 @@
+package com.alura.literalura.principal;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes console screens through one large buffer instead of one
+ * {@code System.out.println} per line.
+ * <p>
+ * {@code System.out} locks and flushes on every line, which dominates long
+ * listings. Here rows are appended to a single reusable
+ * {@link StringBuilder}, and the stream only sees whole chunks of about
+ * {@value #BUFFER_SIZE} characters plus the rest at {@link #flush()}. Screens
+ * must flush before reading input, so the prompt follows what came before it.
+ * <p>
+ * Numbers are appended straight to the buffer instead of going through
+ * {@link java.util.Formatter}, and never depend on the default locale: the
+ * decimal separator is always a dot. Not thread-safe; one instance per
+ * console.
+ */
+public class ConsoleRenderer {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    // Beyond this, scaling by a power of ten could overflow a long
+    private static final double MAX_FIXED = 1e12;
+
+    private final PrintStream out;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+
+    public ConsoleRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    public ConsoleRenderer text(String text) {
+        buffer.append(text);
+        return this;
+    }
+
+    public ConsoleRenderer text(char c) {
+        buffer.append(c);
+        return this;
+    }
+
+    public ConsoleRenderer number(long value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Appends {@code value} right-aligned in {@code width} characters.
+     */
+    public ConsoleRenderer number(long value, int width) {
+        int start = buffer.length();
+        buffer.append(value);
+        pad(start, width, true);
+        return this;
+    }
+
+    /**
+     * Appends {@code value} rounded half up to {@code decimals} digits (at most
+     * 6), or {@code "-"} when it is null.
+     */
+    public ConsoleRenderer number(Double value, int decimals) {
+        if (value == null) {
+            buffer.append('-');
+        } else {
+            appendFixed(buffer, value, decimals);
+        }
+        return this;
+    }
+
+    /**
+     * Appends {@code text} left-aligned in {@code width} characters.
+     */
+    public ConsoleRenderer padded(String text, int width) {
+        int start = buffer.length();
+        buffer.append(text);
+        pad(start, width, false);
+        return this;
+    }
+
+    public ConsoleRenderer line(String text) {
+        buffer.append(text);
+        return endLine();
+    }
+
+    public ConsoleRenderer endLine() {
+        buffer.append('\n');
+        if (buffer.length() >= BUFFER_SIZE) {
+            spill();
+        }
+        return this;
+    }
+
+    /**
+     * Writes out everything rendered so far.
+     */
+    public void flush() {
+        spill();
+        out.flush();
+    }
+
+    /**
+     * Appends {@code value} with {@code decimals} fraction digits, rounded half
+     * up like {@code String.format("%.Nf")} but always with a dot.
+     */
+    static void appendFixed(StringBuilder target, double value, int decimals) {
+        if (!Double.isFinite(value)) {
+            target.append(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (Math.abs(value) >= MAX_FIXED || decimals >= POWERS_OF_TEN.length) {
+            target.append(new BigDecimal(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            target.append('-');
+        }
+        target.append(scaled / scale);
+        if (decimals > 0) {
+            target.append('.');
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > fraction && digit > 1; digit /= 10) {
+                target.append('0');
+            }
+            target.append(fraction);
+        }
+    }
+
+    private void pad(int start, int width, boolean left) {
+        int missing = width - (buffer.length() - start);
+        for (int i = 0; i < missing; i++) {
+            buffer.insert(left ? start : buffer.length(), ' ');
+        }
+    }
+
+    private void spill() {
+        if (buffer.length() > 0) {
+            out.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -1,18 +1,62 @@
 package com.alura.literalura.principal;
 
+import com.alura.literalura.dto.AuthorSummary;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.dto.CacheRegionStats;
+import com.alura.literalura.dto.CacheStats;
+import com.alura.literalura.dto.CenturyStatistics;
+import com.alura.literalura.dto.DownloadSummary;
+import com.alura.literalura.dto.ExportReport;
+import com.alura.literalura.dto.GroupStatistics;
+import com.alura.literalura.dto.ImportReport;
+import com.alura.literalura.dto.LatencySummary;
+import com.alura.literalura.dto.RefreshReport;
+import com.alura.literalura.dto.TitleImportReport;
 import com.alura.literalura.model.Author;
 import com.alura.literalura.model.Book;
 import com.alura.literalura.service.BookService;
-
+import com.alura.literalura.service.CatalogExportService;
+import com.alura.literalura.service.CatalogImportService;
+import com.alura.literalura.service.DownloadRefreshService;
+import com.alura.literalura.service.LatencyReportService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.BiFunction;
 
 public class Principal {
+    private static final int RANKING_PAGE_SIZE = 10;
+    private static final String BORDE_SUPERIOR = "╔════════════════════════════════════════════════════════════════╗";
+    private static final String DIVISOR = "╠════════════════════════════════════════════════════════════════╣";
+    private static final String BORDE_INFERIOR = "╚════════════════════════════════════════════════════════════════╝";
+    private static final String SEPARADOR_FILA = "║    ────────────────────────────────────────────────────────────";
+    // Longest bar of the author timeline (option 12)
+    private static final String BARRA = "█".repeat(40);
+
     private Scanner scanner = new Scanner(System.in);
+    // Listings go through one buffer, flushed once per screen and before each prompt
+    private final ConsoleRenderer consola = new ConsoleRenderer(System.out);
     private BookService bookService;
-
-    public Principal(BookService bookService) {
+    private CatalogImportService catalogImportService;
+    private DownloadRefreshService downloadRefreshService;
+    private LatencyReportService latencyReportService;
+    private CatalogExportService catalogExportService;
+
+    public Principal(BookService bookService, CatalogImportService catalogImportService,
+            DownloadRefreshService downloadRefreshService, LatencyReportService latencyReportService,
+            CatalogExportService catalogExportService) {
         this.bookService = bookService;
+        this.catalogImportService = catalogImportService;
+        this.downloadRefreshService = downloadRefreshService;
+        this.latencyReportService = latencyReportService;
+        this.catalogExportService = catalogExportService;
     }
 
     public void mostrarMenu() {
@@ -28,9 +72,16 @@ public class Principal {
                 ║ 4 - Listar autores vivos en un anio   ║
                 ║ 5 - Listar libros por idioma           ║
                 ║ 6 - Estadisticas de libros             ║
-                ║ 7 - Top 10 libros mas descargados      ║
+                ║ 7 - Ranking de libros mas descargados  ║
                 ║ 8 - Buscar autor por nombre            ║
                 ║ 9 - Autores por rango de anios         ║
+                ║ 10 - Importar catalogo completo        ║
+                ║ 11 - Importar titulos desde archivo    ║
+                ║ 12 - Linea de tiempo de autores vivos  ║
+                ║ 13 - Actualizar descargas              ║
+                ║ 14 - Estadisticas de cache             ║
+                ║ 15 - Metricas de latencia              ║
+                ║ 16 - Exportar libros a archivo         ║
                 ║ 0 - Salir                              ║
                 ╚════════════════════════════════════════╝
                 Elija una opcion: """;
@@ -47,9 +98,16 @@ public class Principal {
                     case 4 -> listarAutoresVivosEnAnio();
                     case 5 -> listarLibrosPorIdioma();
                     case 6 -> mostrarEstadisticas();
-                    case 7 -> mostrarTop10Libros();
+                    case 7 -> mostrarRankingDescargas();
                     case 8 -> buscarAutorPorNombre();
                     case 9 -> listarAutoresPorRangoAnios();
+                    case 10 -> importarCatalogoCompleto();
+                    case 11 -> importarTitulosDesdeArchivo();
+                    case 12 -> mostrarLineaDeTiempoAutores();
+                    case 13 -> gestionarActualizacionDescargas();
+                    case 14 -> mostrarEstadisticasDeCache();
+                    case 15 -> mostrarMetricasDeLatencia();
+                    case 16 -> exportarLibros();
                     case 0 -> System.out.println("\n¡Hasta luego!\n");
                     default -> System.out.println("\nOpcion invalida\n");
                 }
@@ -63,6 +121,25 @@ public class Principal {
         System.out.print("\nIngrese el titulo del libro a buscar: ");
         String titulo = scanner.nextLine();
 
+        List<BookListing> locales = bookService.searchLocalBooks(titulo, 5);
+        if (!locales.isEmpty()) {
+            consola.endLine().line(BORDE_SUPERIOR)
+                    .line("║              ENCONTRADO EN EL CATALOGO LOCAL                   ║")
+                    .line(DIVISOR);
+            int contador = 1;
+            for (BookListing libro : locales) {
+                consola.text("║ ").number(contador).text(". ").line(libro.title());
+                consola.text("║    Autor: ").line(libro.authorName() != null ? libro.authorName() : "Desconocido");
+                contador++;
+            }
+            consola.line(BORDE_INFERIOR).flush();
+            System.out.print("¿Buscar tambien en la API de Gutendex? (s/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("s")) {
+                System.out.println();
+                return;
+            }
+        }
+
         try {
             System.out.println("\nBuscando en la API de Gutendex...");
             Book libro = bookService.searchAndSaveBook(titulo);
@@ -72,14 +149,14 @@ public class Principal {
             System.out.println("╠════════════════════════════════════════════════════════════════╣");
             System.out.println("║ Titulo: " + libro.getTitle());
 
-            if (libro.getAuthor() != null) {
-                System.out.println("║ Autor: " + libro.getAuthor().getName());
+            for (Author autor : libro.getAuthors()) {
+                System.out.println("║ Autor: " + autor.getName());
 
                 String periodo = "";
-                if (libro.getAuthor().getBirthYear() != null && libro.getAuthor().getDeathYear() != null) {
-                    periodo = "(" + libro.getAuthor().getBirthYear() + " - " + libro.getAuthor().getDeathYear() + ")";
-                } else if (libro.getAuthor().getBirthYear() != null) {
-                    periodo = "(" + libro.getAuthor().getBirthYear() + " - Presente)";
+                if (autor.getBirthYear() != null && autor.getDeathYear() != null) {
+                    periodo = "(" + autor.getBirthYear() + " - " + autor.getDeathYear() + ")";
+                } else if (autor.getBirthYear() != null) {
+                    periodo = "(" + autor.getBirthYear() + " - Presente)";
                 }
 
                 if (!periodo.isEmpty()) {
@@ -87,7 +164,9 @@ public class Principal {
                 }
             }
 
-            System.out.println("║ Idioma: " + libro.getLanguage());
+            System.out.println("║ Idioma: " + (libro.getLanguages().isEmpty()
+                    ? libro.getLanguage()
+                    : String.join(", ", libro.getLanguages())));
             System.out.println("║ Descargas: " + String.format("%.0f", libro.getDownloads()));
             System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
         } catch (Exception e) {
@@ -100,107 +179,126 @@ public class Principal {
     }
 
     private void listarLibrosRegistrados() {
-        List<Book> libros = bookService.getAllBooks();
-        if (libros.isEmpty()) {
+        Window<BookListing> pagina = bookService.getBooksPage(ScrollPosition.keyset());
+        if (pagina.isEmpty()) {
             System.out.println("\nNo hay libros registrados en la base de datos\n");
             return;
         }
 
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║              LIBROS REGISTRADOS EN LA BD                       ║");
-        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        consola.endLine().line(BORDE_SUPERIOR)
+                .line("║              LIBROS REGISTRADOS EN LA BD                       ║")
+                .line(DIVISOR);
 
+        // One page in memory at a time; each page resumes after the last id shown
         int contador = 1;
-        for (Book libro : libros) {
-            System.out.println("║ " + contador + ". " + libro.getTitle());
-            System.out.println(
-                    "║    Autor: " + (libro.getAuthor() != null ? libro.getAuthor().getName() : "Desconocido"));
-            System.out.println("║    Idioma: " + libro.getLanguage());
-            System.out.println("║    Descargas: " + String.format("%.0f", libro.getDownloads()));
-            if (contador < libros.size()) {
-                System.out.println("║    ────────────────────────────────────────────────────────────");
+        while (true) {
+            for (BookListing libro : pagina) {
+                if (contador > 1) {
+                    consola.line(SEPARADOR_FILA);
+                }
+                consola.text("║ ").number(contador).text(". ").line(libro.title());
+                consola.text("║    Autor: ").line(libro.authorName() != null ? libro.authorName() : "Desconocido");
+                consola.text("║    Idioma: ").line(libro.language());
+                consola.text("║    Descargas: ").number(libro.downloads(), 0).endLine();
+                contador++;
             }
-            contador++;
+            if (!pagina.hasNext() || !continuarListado(contador - 1)) {
+                break;
+            }
+            pagina = bookService.getBooksPage(pagina.positionAt(pagina.size() - 1));
         }
 
-        System.out.println("╚════════════════════════════════════════════════════════════════╝");
-        System.out.println("Total: " + libros.size() + " libro(s)\n");
+        consola.line(BORDE_INFERIOR)
+                .text(pagina.hasNext() ? "Mostrados: " : "Total: ").number(contador - 1).line(" libro(s)")
+                .endLine()
+                .flush();
     }
 
     private void listarAutoresRegistrados() {
-        List<Author> autores = bookService.getAllAuthors();
-        if (autores.isEmpty()) {
+        Window<AuthorSummary> pagina = bookService.getAuthorsPage(ScrollPosition.keyset());
+        if (pagina.isEmpty()) {
             System.out.println("\nNo hay autores registrados en la base de datos\n");
             return;
         }
 
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║              AUTORES REGISTRADOS EN LA BD                      ║");
-        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        consola.endLine().line(BORDE_SUPERIOR)
+                .line("║              AUTORES REGISTRADOS EN LA BD                      ║")
+                .line(DIVISOR);
 
         int contador = 1;
-        for (Author autor : autores) {
-            System.out.println("║ " + contador + ". " + autor.getName());
-
-            String periodo = "";
-            if (autor.getBirthYear() != null && autor.getDeathYear() != null) {
-                periodo = "(" + autor.getBirthYear() + " - " + autor.getDeathYear() + ")";
-            } else if (autor.getBirthYear() != null) {
-                periodo = "(" + autor.getBirthYear() + " - Presente)";
-            } else {
-                periodo = "(Fechas desconocidas)";
+        while (true) {
+            for (AuthorSummary autor : pagina) {
+                if (contador > 1) {
+                    consola.line(SEPARADOR_FILA);
+                }
+                consola.text("║ ").number(contador).text(". ").line(autor.name());
+                periodo(autor, "(Fechas desconocidas)");
+                contador++;
             }
+            if (!pagina.hasNext() || !continuarListado(contador - 1)) {
+                break;
+            }
+            pagina = bookService.getAuthorsPage(pagina.positionAt(pagina.size() - 1));
+        }
 
-            System.out.println("║    " + periodo);
+        consola.line(BORDE_INFERIOR)
+                .text(pagina.hasNext() ? "Mostrados: " : "Total: ").number(contador - 1).line(" autor(es)")
+                .endLine()
+                .flush();
+    }
 
+    private boolean continuarListado(int mostrados) {
+        consola.flush();
+        System.out.print("║ -- " + mostrados + " mostrados -- Enter para ver mas, 'q' para terminar: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
+    // Lifespan line of an author; when the birth year is unknown, desconocido (or nothing if null)
+    private void periodo(AuthorSummary autor, String desconocido) {
+        if (autor.birthYear() != null) {
+            consola.text("║    (").number(autor.birthYear()).text(" - ");
+            if (autor.deathYear() != null) {
+                consola.number(autor.deathYear());
+            } else {
+                consola.text("Presente");
+            }
+            consola.line(")");
+        } else if (desconocido != null) {
+            consola.text("║    ").line(desconocido);
+        }
+    }
+
+    private void listarAutores(List<AuthorSummary> autores) {
+        int contador = 1;
+        for (AuthorSummary autor : autores) {
+            consola.text("║ ").number(contador).text(". ").line(autor.name());
+            periodo(autor, null);
             if (contador < autores.size()) {
-                System.out.println("║    ────────────────────────────────────────────────────────────");
+                consola.line(SEPARADOR_FILA);
             }
             contador++;
         }
-
-        System.out.println("╚════════════════════════════════════════════════════════════════╝");
-        System.out.println("Total: " + autores.size() + " autor(es)\n");
     }
 
     private void listarAutoresVivosEnAnio() {
         System.out.print("\nIngrese el anio: ");
         try {
             int anio = Integer.parseInt(scanner.nextLine());
-            List<Author> autores = bookService.getAuthorsAliveInYear(anio);
+            List<AuthorSummary> autores = bookService.getAuthorsAliveInYear(anio);
 
             if (autores.isEmpty()) {
                 System.out.println("\nNo se encontraron autores vivos en el anio " + anio + "\n");
                 return;
             }
 
-            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-            System.out.println("║         AUTORES VIVOS EN EL ANIO " + anio + "                      ║");
-            System.out.println("╠════════════════════════════════════════════════════════════════╣");
-
-            int contador = 1;
-            for (Author autor : autores) {
-                System.out.println("║ " + contador + ". " + autor.getName());
-
-                String periodo = "";
-                if (autor.getBirthYear() != null && autor.getDeathYear() != null) {
-                    periodo = "(" + autor.getBirthYear() + " - " + autor.getDeathYear() + ")";
-                } else if (autor.getBirthYear() != null) {
-                    periodo = "(" + autor.getBirthYear() + " - Presente)";
-                }
-
-                if (!periodo.isEmpty()) {
-                    System.out.println("║    " + periodo);
-                }
-
-                if (contador < autores.size()) {
-                    System.out.println("║    ────────────────────────────────────────────────────────────");
-                }
-                contador++;
-            }
-
-            System.out.println("╚════════════════════════════════════════════════════════════════╝");
-            System.out.println("Total: " + autores.size() + " autor(es)\n");
+            consola.endLine().line(BORDE_SUPERIOR)
+                    .text("║         AUTORES VIVOS EN EL ANIO ").number(anio).line("                      ║")
+                    .line(DIVISOR);
+            listarAutores(autores);
+            consola.line(BORDE_INFERIOR)
+                    .text("Total: ").number(autores.size()).line(" autor(es)")
+                    .endLine()
+                    .flush();
         } catch (NumberFormatException e) {
             System.out.println("\nPor favor ingrese un anio valido\n");
         }
@@ -231,7 +329,7 @@ public class Principal {
             };
 
             if (idioma != null) {
-                List<Book> libros = bookService.getBooksByLanguage(idioma);
+                List<BookListing> libros = bookService.getBooksByLanguage(idioma);
                 String nombreIdioma = getNombreIdioma(idioma);
 
                 if (libros.isEmpty()) {
@@ -239,25 +337,27 @@ public class Principal {
                     return;
                 }
 
-                System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-                System.out.println(
-                        "║              LIBROS EN " + nombreIdioma.toUpperCase() + "                              ║");
-                System.out.println("╠════════════════════════════════════════════════════════════════╣");
+                consola.endLine().line(BORDE_SUPERIOR)
+                        .text("║              LIBROS EN ").text(nombreIdioma.toUpperCase())
+                        .line("                              ║")
+                        .line(DIVISOR);
 
                 int contador = 1;
-                for (Book libro : libros) {
-                    System.out.println("║ " + contador + ". " + libro.getTitle());
-                    System.out.println(
-                            "║    " + (libro.getAuthor() != null ? libro.getAuthor().getName() : "Autor desconocido"));
+                for (BookListing libro : libros) {
+                    consola.text("║ ").number(contador).text(". ").line(libro.title());
+                    consola.text("║    ")
+                            .line(libro.authorName() != null ? libro.authorName() : "Autor desconocido");
 
                     if (contador < libros.size()) {
-                        System.out.println("║    ────────────────────────────────────────────────────────────");
+                        consola.line(SEPARADOR_FILA);
                     }
                     contador++;
                 }
 
-                System.out.println("╚════════════════════════════════════════════════════════════════╝");
-                System.out.println("Total: " + libros.size() + " libro(s)\n");
+                consola.line(BORDE_INFERIOR)
+                        .text("Total: ").number(libros.size()).line(" libro(s)")
+                        .endLine()
+                        .flush();
             }
         } catch (NumberFormatException e) {
             System.out.println("\nPor favor ingrese un numero valido\n");
@@ -277,84 +377,170 @@ public class Principal {
     // ========== ADVANCED FEATURES ==========
 
     private void mostrarEstadisticas() {
-        java.util.DoubleSummaryStatistics stats = bookService.getBookStatistics();
-
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║              ESTADISTICAS DE LIBROS                            ║");
-        System.out.println("╠════════════════════════════════════════════════════════════════╣");
-        System.out.println("║ Total de libros: " + stats.getCount());
-        System.out.println("║ Total de descargas: " + String.format("%.0f", stats.getSum()));
-        System.out.println("║ Promedio de descargas: " + String.format("%.2f", stats.getAverage()));
-        System.out.println("║ Maximo de descargas: " + String.format("%.0f", stats.getMax()));
-        System.out.println("║ Minimo de descargas: " + String.format("%.0f", stats.getMin()));
-        System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
-    }
-
-    private void mostrarTop10Libros() {
-        List<Book> top10 = bookService.getTop10MostDownloaded();
-
-        if (top10.isEmpty()) {
+        BookStatistics stats = bookService.getBookStatistics();
+        DownloadSummary descargas = stats.downloads();
+        if (descargas.books() == 0) {
             System.out.println("\nNo hay libros registrados en la base de datos\n");
             return;
         }
 
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║              TOP 10 LIBROS MAS DESCARGADOS                     ║");
-        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        consola.endLine().line(BORDE_SUPERIOR)
+                .line("║              ESTADISTICAS DE LIBROS                            ║")
+                .line(DIVISOR)
+                .text("║ Total de libros: ").number(descargas.books()).endLine()
+                .text("║ Total de descargas: ").number(descargas.totalDownloads(), 0).endLine()
+                .text("║ Promedio de descargas: ").number(descargas.averageDownloads(), 2).endLine()
+                .text("║ Maximo de descargas: ").number(descargas.maxDownloads(), 0).endLine()
+                .text("║ Minimo de descargas: ").number(descargas.minDownloads(), 0).endLine()
+                .text("║ Mediana de descargas: ").number(descargas.medianDownloads(), 0).endLine()
+                .text("║ Percentil 90 de descargas: ").number(descargas.p90Downloads(), 0).endLine();
+
+        consola.line(DIVISOR)
+                .line("║              POR IDIOMA                                        ║")
+                .line(DIVISOR);
+        for (GroupStatistics idioma : stats.byLanguage()) {
+            consola.text("║ ").text(getNombreIdioma(idioma.name())).text(": ").number(idioma.books())
+                    .text(" libro(s), ").number(idioma.totalDownloads(), 0).line(" descargas");
+        }
 
+        consola.line(DIVISOR)
+                .line("║              AUTORES MAS DESCARGADOS                           ║")
+                .line(DIVISOR);
         int posicion = 1;
-        for (Book libro : top10) {
-            System.out.println("║ " + posicion + ". " + libro.getTitle());
-            System.out.println("║    " + (libro.getAuthor() != null ? libro.getAuthor().getName() : "Desconocido"));
-            System.out.println("║    " + String.format("%.0f", libro.getDownloads()) + " descargas");
+        for (GroupStatistics autor : stats.topAuthors()) {
+            consola.text("║ ").number(posicion).text(". ").line(autor.name());
+            consola.text("║    ").number(autor.books()).text(" libro(s), ")
+                    .number(autor.totalDownloads(), 0).line(" descargas");
+            posicion++;
+        }
 
-            if (posicion < top10.size()) {
-                System.out.println("║    ────────────────────────────────────────────────────────────");
+        if (!stats.byCentury().isEmpty()) {
+            consola.line(DIVISOR)
+                    .line("║              AUTORES POR SIGLO DE NACIMIENTO                   ║")
+                    .line(DIVISOR);
+            for (CenturyStatistics siglo : stats.byCentury()) {
+                consola.text("║ ").number(siglo.startYear()).text(" - ").number(siglo.endYear()).text(": ")
+                        .number(siglo.authors()).text(" autor(es), ").number(siglo.books()).text(" libro(s), ")
+                        .number(siglo.totalDownloads(), 0).line(" descargas");
             }
-            posicion++;
         }
+        consola.line(BORDE_INFERIOR).endLine().flush();
+    }
 
-        System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+    private void mostrarRankingDescargas() {
+        String menuRanking = """
+
+                Ranking de libros mas descargados:
+                1 - Todo el catalogo
+                2 - Por idioma
+                3 - Por autor
+                Opcion: """;
+
+        System.out.print(menuRanking);
+        try {
+            int opcion = Integer.parseInt(scanner.nextLine());
+            String titulo;
+            BiFunction<BookListing, Integer, List<BookListing>> ranking;
+            switch (opcion) {
+                case 1 -> {
+                    titulo = "TODO EL CATALOGO";
+                    ranking = bookService::getMostDownloaded;
+                }
+                case 2 -> {
+                    System.out.print("Ingrese el codigo de idioma (es, en, fr, pt...): ");
+                    String idioma = scanner.nextLine().trim().toLowerCase();
+                    titulo = getNombreIdioma(idioma).toUpperCase();
+                    ranking = (despues, cantidad) -> bookService.getMostDownloadedByLanguage(idioma, despues, cantidad);
+                }
+                case 3 -> {
+                    System.out.print("Ingrese el nombre del autor: ");
+                    List<AuthorSummary> autores = bookService.searchLocalAuthors(scanner.nextLine(), 1);
+                    if (autores.isEmpty()) {
+                        System.out.println("\nNo se encontraron autores con ese nombre\n");
+                        return;
+                    }
+                    AuthorSummary autor = autores.get(0);
+                    titulo = autor.name().toUpperCase();
+                    ranking = (despues, cantidad) -> bookService.getMostDownloadedByAuthor(autor.id(), despues, cantidad);
+                }
+                default -> {
+                    System.out.println("\nOpcion invalida\n");
+                    return;
+                }
+            }
+
+            System.out.print("¿Cuantos libros mostrar? (Enter = 10): ");
+            String respuesta = scanner.nextLine().trim();
+            int total = respuesta.isEmpty() ? 10 : Integer.parseInt(respuesta);
+            if (total < 1) {
+                System.out.println("\nIngrese un numero mayor que cero\n");
+                return;
+            }
+
+            List<BookListing> pagina = ranking.apply(null, Math.min(total, RANKING_PAGE_SIZE));
+            if (pagina.isEmpty()) {
+                System.out.println("\nNo hay libros registrados para ese ranking\n");
+                return;
+            }
+
+            consola.endLine().line(BORDE_SUPERIOR)
+                    .text("║              LIBROS MAS DESCARGADOS: ").line(titulo)
+                    .line(DIVISOR);
+
+            int posicion = 1;
+            while (true) {
+                for (BookListing libro : pagina) {
+                    if (posicion > 1) {
+                        consola.line(SEPARADOR_FILA);
+                    }
+                    consola.text("║ ").number(posicion).text(". ").line(libro.title());
+                    consola.text("║    ").line(libro.authorName() != null ? libro.authorName() : "Desconocido");
+                    consola.text("║    ").number(libro.downloads(), 0).line(" descargas");
+                    posicion++;
+                }
+                int mostrados = posicion - 1;
+                if (pagina.size() < RANKING_PAGE_SIZE || mostrados >= total || !continuarListado(mostrados)) {
+                    break;
+                }
+                pagina = ranking.apply(pagina.get(pagina.size() - 1), Math.min(total - mostrados, RANKING_PAGE_SIZE));
+                if (pagina.isEmpty()) {
+                    break;
+                }
+            }
+
+            consola.line(BORDE_INFERIOR).endLine().flush();
+        } catch (NumberFormatException e) {
+            System.out.println("\nPor favor ingrese un numero valido\n");
+        }
     }
 
     private void buscarAutorPorNombre() {
         System.out.print("\nIngrese el nombre del autor a buscar: ");
         String nombre = scanner.nextLine();
 
-        List<Author> autores = bookService.searchAuthorsByName(nombre);
+        // Exact words first from the in-memory index, fuzzy matches from the database otherwise
+        List<AuthorSummary> autores = bookService.searchLocalAuthors(nombre, 20);
+        long total = autores.size();
+        if (autores.isEmpty()) {
+            Page<AuthorSummary> resultados = bookService.searchAuthors(nombre, PageRequest.of(0, 20));
+            autores = resultados.getContent();
+            total = resultados.getTotalElements();
+        }
 
         if (autores.isEmpty()) {
             System.out.println("\nNo se encontraron autores con ese nombre\n");
             return;
         }
 
-        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║              RESULTADOS DE BUSQUEDA                            ║");
-        System.out.println("╠════════════════════════════════════════════════════════════════╣");
-
-        int contador = 1;
-        for (Author autor : autores) {
-            System.out.println("║ " + contador + ". " + autor.getName());
-
-            String periodo = "";
-            if (autor.getBirthYear() != null && autor.getDeathYear() != null) {
-                periodo = "(" + autor.getBirthYear() + " - " + autor.getDeathYear() + ")";
-            } else if (autor.getBirthYear() != null) {
-                periodo = "(" + autor.getBirthYear() + " - Presente)";
-            }
-
-            if (!periodo.isEmpty()) {
-                System.out.println("║    " + periodo);
-            }
-
-            if (contador < autores.size()) {
-                System.out.println("║    ────────────────────────────────────────────────────────────");
-            }
-            contador++;
-        }
-
-        System.out.println("╚════════════════════════════════════════════════════════════════╝");
-        System.out.println("Total: " + autores.size() + " autor(es) encontrado(s)\n");
+        consola.endLine().line(BORDE_SUPERIOR)
+                .line("║              RESULTADOS DE BUSQUEDA                            ║")
+                .line(DIVISOR);
+        listarAutores(autores);
+        consola.line(BORDE_INFERIOR)
+                .text("Mostrando ").number(autores.size()).text(" de ").number(total)
+                .line(" autor(es) encontrado(s)")
+                .endLine()
+                .flush();
     }
 
     private void listarAutoresPorRangoAnios() {
@@ -369,43 +555,249 @@ public class Principal {
                 return;
             }
 
-            List<Author> autores = bookService.getAuthorsByBirthYearRange(anioInicial, anioFinal);
+            List<AuthorSummary> autores = bookService.getAuthorsByBirthYearRange(anioInicial, anioFinal);
 
             if (autores.isEmpty()) {
                 System.out.println("\nNo se encontraron autores en ese rango de anios\n");
                 return;
             }
 
-            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-            System.out.println(
-                    "║         AUTORES NACIDOS ENTRE " + anioInicial + " Y " + anioFinal + "                 ║");
-            System.out.println("╠════════════════════════════════════════════════════════════════╣");
-
-            int contador = 1;
-            for (Author autor : autores) {
-                System.out.println("║ " + contador + ". " + autor.getName());
+            consola.endLine().line(BORDE_SUPERIOR)
+                    .text("║         AUTORES NACIDOS ENTRE ").number(anioInicial).text(" Y ").number(anioFinal)
+                    .line("                 ║")
+                    .line(DIVISOR);
+            listarAutores(autores);
+            consola.line(BORDE_INFERIOR)
+                    .text("Total: ").number(autores.size()).line(" autor(es)")
+                    .endLine()
+                    .flush();
+        } catch (NumberFormatException e) {
+            System.out.println("\nPor favor ingrese anios validos\n");
+        }
+    }
 
-                String periodo = "";
-                if (autor.getBirthYear() != null && autor.getDeathYear() != null) {
-                    periodo = "(" + autor.getBirthYear() + " - " + autor.getDeathYear() + ")";
-                } else if (autor.getBirthYear() != null) {
-                    periodo = "(" + autor.getBirthYear() + " - Presente)";
-                }
+    private void mostrarLineaDeTiempoAutores() {
+        System.out.print("\nIngrese el anio inicial: ");
+        try {
+            int anioInicial = Integer.parseInt(scanner.nextLine());
+            System.out.print("Ingrese el anio final: ");
+            int anioFinal = Integer.parseInt(scanner.nextLine());
+            System.out.print("Intervalo entre anios (Enter = 10): ");
+            String respuesta = scanner.nextLine().trim();
+            int intervalo = respuesta.isEmpty() ? 10 : Integer.parseInt(respuesta);
 
-                if (!periodo.isEmpty()) {
-                    System.out.println("║    " + periodo);
-                }
+            if (anioInicial > anioFinal || intervalo < 1) {
+                System.out.println("\nEl anio inicial debe ser menor o igual al final y el intervalo mayor que cero\n");
+                return;
+            }
+            if ((long) anioFinal - anioInicial >= BookService.MAX_TIMELINE_YEARS) {
+                System.out.println("\nEl rango puede abarcar como maximo " + BookService.MAX_TIMELINE_YEARS + " anios\n");
+                return;
+            }
 
-                if (contador < autores.size()) {
-                    System.out.println("║    ────────────────────────────────────────────────────────────");
-                }
-                contador++;
+            int[] vivos = bookService.getAliveAuthorCounts(anioInicial, anioFinal);
+            int maximo = Arrays.stream(vivos).max().orElse(0);
+            if (maximo == 0) {
+                System.out.println("\nNo hay autores vivos registrados en ese rango de anios\n");
+                return;
             }
 
-            System.out.println("╚════════════════════════════════════════════════════════════════╝");
-            System.out.println("Total: " + autores.size() + " autor(es)\n");
+            consola.endLine().line(BORDE_SUPERIOR)
+                    .text("║         AUTORES VIVOS ENTRE ").number(anioInicial).text(" Y ").number(anioFinal)
+                    .line("                   ║")
+                    .line(DIVISOR);
+            for (int i = 0; i < vivos.length; i += intervalo) {
+                consola.text("║ ").number(anioInicial + i, 6).text(' ')
+                        .padded(BARRA.substring(0, (int) Math.round(vivos[i] * 40.0 / maximo)), 40).text(' ')
+                        .number(vivos[i]).endLine();
+            }
+            consola.line(BORDE_INFERIOR).endLine().flush();
         } catch (NumberFormatException e) {
             System.out.println("\nPor favor ingrese anios validos\n");
         }
     }
+
+    private void gestionarActualizacionDescargas() {
+        RefreshReport ultimo = downloadRefreshService.getLastReport();
+
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║              ACTUALIZACION DE DESCARGAS                        ║");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        System.out.println("║ Estado: " + (downloadRefreshService.isRunning() ? "en curso"
+                : downloadRefreshService.isPaused() ? "pausada" : "en espera"));
+        if (ultimo != null) {
+            System.out.println("║ Ultima ejecucion: " + ultimo.booksChecked() + " libro(s) revisados, "
+                    + ultimo.booksUpdated() + " actualizado(s)" + (ultimo.completed() ? "" : " (pausada)"));
+        }
+        System.out.println("╚════════════════════════════════════════════════════════════════╝");
+
+        String menuActualizacion = """
+                1 - Actualizar ahora (en segundo plano)
+                2 - Pausar
+                3 - Reanudar
+                0 - Volver
+                Opcion: """;
+        System.out.print(menuActualizacion);
+        switch (scanner.nextLine().trim()) {
+            case "1" -> {
+                if (downloadRefreshService.isPaused()) {
+                    System.out.println("\nLa actualizacion esta pausada; reanudela primero\n");
+                } else {
+                    downloadRefreshService.refreshInBackground();
+                    System.out.println("\nActualizacion iniciada en segundo plano\n");
+                }
+            }
+            case "2" -> {
+                downloadRefreshService.pause();
+                System.out.println("\nActualizacion pausada; se detendra tras el lote en curso\n");
+            }
+            case "3" -> {
+                downloadRefreshService.resume();
+                System.out.println("\nActualizacion reanudada; continuara en la proxima ejecucion\n");
+            }
+            case "0" -> System.out.println();
+            default -> System.out.println("\nOpcion invalida\n");
+        }
+    }
+
+    private void mostrarEstadisticasDeCache() {
+        CacheStats gutendex = bookService.getGutendexCacheStats();
+
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║              ESTADISTICAS DE CACHE                             ║");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        System.out.println("║ Respuestas de Gutendex: " + gutendex.size() + " entrada(s), "
+                + gutendex.hits() + " acierto(s), " + gutendex.misses() + " fallo(s), "
+                + String.format("%.1f%%", gutendex.hitRatio() * 100) + " de aciertos");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        System.out.println("║              BASE DE DATOS (POR REGION)                        ║");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        for (CacheRegionStats region : bookService.getDatabaseCacheStats()) {
+            System.out.println("║ " + region.region() + ": " + region.hits() + " acierto(s), "
+                    + region.misses() + " fallo(s), " + region.puts() + " guardado(s), "
+                    + String.format("%.1f%%", region.hitRatio() * 100) + " de aciertos");
+        }
+        System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+    }
+
+    private void mostrarMetricasDeLatencia() {
+        List<LatencySummary> resumenes = latencyReportService.summaries();
+
+        System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+        System.out.println("║              METRICAS DE LATENCIA (ms)                         ║");
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        if (resumenes.isEmpty()) {
+            System.out.println("║ Sin operaciones registradas todavia");
+        }
+        String grupo = null;
+        for (LatencySummary resumen : resumenes) {
+            if (!resumen.group().equals(grupo)) {
+                grupo = resumen.group();
+                System.out.println("║ " + switch (grupo) {
+                    case "gutendex" -> "API de Gutendex";
+                    case "repository" -> "Consultas a la base de datos";
+                    default -> "Servicio de libros";
+                });
+                System.out.println(String.format("║   %-44s %8s %8s %8s %8s %8s %8s",
+                        "Operacion", "Llamadas", "Media", "p50", "p95", "p99", "Max"));
+            }
+            System.out.println(String.format("║   %-44s %8d %8s %8s %8s %8s %8s", resumen.operation(), resumen.count(),
+                    milisegundos(resumen.meanMillis()), milisegundos(resumen.p50Millis()),
+                    milisegundos(resumen.p95Millis()), milisegundos(resumen.p99Millis()),
+                    milisegundos(resumen.maxMillis())));
+        }
+        System.out.println("╠════════════════════════════════════════════════════════════════╣");
+        System.out.println("║ Percentiles y maximo de los ultimos 2 minutos; media desde el inicio");
+        System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+    }
+
+    private static String milisegundos(double valor) {
+        return Double.isNaN(valor) ? "-" : String.format("%.2f", valor);
+    }
+
+    private void importarCatalogoCompleto() {
+        System.out.print("\nSe descargara el catalogo completo de Gutendex (70.000+ libros). ¿Continuar? (s/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("s")) {
+            System.out.println("\nImportacion cancelada\n");
+            return;
+        }
+
+        try {
+            System.out.println("\nImportando catalogo desde la API de Gutendex...");
+            ImportReport reporte = catalogImportService.importCatalog();
+
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║              IMPORTACION COMPLETADA                            ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ Paginas descargadas: " + reporte.pages());
+            System.out.println("║ Libros leidos: " + reporte.booksRead());
+            System.out.println("║ Libros nuevos guardados: " + reporte.booksInserted());
+            System.out.println("║ Tiempo: " + reporte.elapsed().toSeconds() + " s");
+            System.out.println("║ Rendimiento: " + String.format("%.1f", reporte.booksPerSecond()) + " libros/s");
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        } catch (Exception e) {
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║                    ERROR                                        ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ " + e.getMessage());
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        }
+    }
+
+    private void exportarLibros() {
+        System.out.print("\nIngrese la ruta del archivo (.csv o .jsonl): ");
+        String ruta = scanner.nextLine().trim();
+
+        try {
+            System.out.println("\nExportando libros...");
+            ExportReport reporte = catalogExportService.exportBooks(Path.of(ruta));
+
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║              EXPORTACION COMPLETADA                            ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ Archivo: " + reporte.file().toAbsolutePath());
+            System.out.println("║ Libros exportados: " + reporte.rows());
+            System.out.println("║ Tiempo: " + reporte.elapsed().toMillis() + " ms");
+            System.out.println("║ Rendimiento: " + String.format("%.1f", reporte.rowsPerSecond()) + " libros/s");
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        } catch (Exception e) {
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║                    ERROR                                        ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ " + e.getMessage());
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        }
+    }
+
+    private void importarTitulosDesdeArchivo() {
+        System.out.print("\nIngrese la ruta del archivo (.txt con un titulo por linea o .csv): ");
+        String ruta = scanner.nextLine().trim();
+
+        try {
+            System.out.println("\nBuscando los titulos en la API de Gutendex...");
+            TitleImportReport reporte = bookService.importTitlesFromFile(Path.of(ruta));
+
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║              IMPORTACION POR LOTES COMPLETADA                  ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ Titulos solicitados: " + reporte.requested());
+            System.out.println("║ Libros nuevos guardados: " + reporte.imported());
+            System.out.println("║ Libros ya registrados: " + reporte.alreadyStored());
+            System.out.println("║ No encontrados en Gutendex: " + reporte.notFound().size());
+            for (String titulo : reporte.notFound()) {
+                System.out.println("║    - " + titulo);
+            }
+            System.out.println("║ Con errores: " + reporte.failed().size());
+            for (String titulo : reporte.failed()) {
+                System.out.println("║    - " + titulo);
+            }
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        } catch (Exception e) {
+            System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
+            System.out.println("║                    ERROR                                        ║");
+            System.out.println("╠════════════════════════════════════════════════════════════════╣");
+            System.out.println("║ " + e.getMessage());
+            System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package com.alura.literalura.ranking;
+
+import com.alura.literalura.dto.BookListing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The {@code capacity} most downloaded books of one ranking, kept sorted
+ * (downloads descending, unknown counts last, id breaks ties).
+ * <p>
+ * Offering a book inserts it, moves it if it is already ranked, or ignores it
+ * if it does not make the cut. A ranked book whose count drops may have to
+ * give its place to a book that was cut earlier and is no longer known here;
+ * the board then reports itself {@linkplain #isStale() stale} and must be
+ * reloaded. Not thread-safe.
+ */
+public class Leaderboard {
+
+    static final Comparator<BookListing> ORDER = Comparator
+            .comparing(BookListing::downloads, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(BookListing::id);
+
+    private final int capacity;
+    private final TreeSet<BookListing> ranking = new TreeSet<>(ORDER);
+    private final Map<Long, BookListing> byId = new HashMap<>();
+    // True once books may exist that did not fit: the board is then only a prefix of the full ranking
+    private boolean truncated;
+    private boolean stale;
+
+    /**
+     * @param capacity Number of books to keep
+     * @param top      Best books of the ranking, as loaded from the database;
+     *                 at most {@code capacity} of them are kept
+     */
+    public Leaderboard(int capacity, List<BookListing> top) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        for (BookListing book : top) {
+            offer(book);
+        }
+        // A full load probably stopped at the limit
+        truncated |= ranking.size() == capacity;
+    }
+
+    /**
+     * Adds or repositions {@code book}.
+     */
+    public void offer(BookListing book) {
+        BookListing previous = byId.remove(book.id());
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+
+        if (ranking.size() < capacity || ORDER.compare(book, ranking.last()) < 0) {
+            ranking.add(book);
+            byId.put(book.id(), book);
+            if (ranking.size() > capacity) {
+                byId.remove(ranking.pollLast().id());
+                truncated = true;
+            }
+        } else {
+            truncated = true;
+        }
+
+        if (previous != null && truncated && ORDER.compare(book, previous) > 0) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Applies a new download count to a book known only by id. A ranked book
+     * is repositioned. An unranked one may belong to another ranking, so it
+     * is ignored unless it would make the cut of a board that no longer holds
+     * every book; that board becomes {@linkplain #isStale() stale}.
+     */
+    public void updateDownloads(long id, Double downloads) {
+        BookListing current = byId.get(id);
+        if (current != null) {
+            offer(new BookListing(current.id(), current.title(), current.authorName(), current.language(),
+                    downloads));
+            return;
+        }
+        BookListing probe = new BookListing(id, null, null, null, downloads);
+        if (truncated && (ranking.size() < capacity || ORDER.compare(probe, ranking.last()) < 0)) {
+            stale = true;
+        }
+    }
+
+    /**
+     * @return Whether a ranked book lost downloads while better books may
+     *         have been cut; the board must be rebuilt before it is read
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * @return Whether the board holds every book of the ranking, so that a
+     *         page it cannot fill has no more books in the database either
+     */
+    public boolean isComplete() {
+        return !truncated;
+    }
+
+    /**
+     * @return Up to {@code limit} books starting at rank {@code offset} (0-based)
+     */
+    public List<BookListing> page(int offset, int limit) {
+        List<BookListing> page = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<BookListing> iterator = ranking.iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    /**
+     * @param after A book as it was last shown (its id and download count
+     *              position it, whether or not it is still ranked here)
+     * @return Up to {@code limit} books ranked after {@code after}
+     */
+    public List<BookListing> pageAfter(BookListing after, int limit) {
+        List<BookListing> page = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<BookListing> iterator = ranking.tailSet(after, false).iterator();
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    public int size() {
+        return ranking.size();
+    }
+}
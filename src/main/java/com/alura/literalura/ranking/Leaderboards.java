@@ -0,0 +1,212 @@
+package com.alura.literalura.ranking;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.config.LeaderboardProperties;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.event.BooksSavedEvent;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.BookRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Most downloaded books, globally, per language and per author, answered
+ * from memory.
+ * <p>
+ * Each ranking is a {@link Leaderboard} loaded from the database on first
+ * use, then kept up to date from {@link BooksSavedEvent}s and
+ * {@link DownloadsRefreshedEvent}s. Pages continue after the last book shown
+ * (keyset), so a page that reaches beyond the capacity of a board reads only
+ * its own rows from the database. All
+ * boards are dropped (to be reloaded lazily) on a {@link CatalogChangedEvent}
+ * and every {@link CatalogMemoryProperties#maxAge()}.
+ */
+@Component
+public class Leaderboards {
+
+    private final BookRepository bookRepository;
+    private final LeaderboardProperties properties;
+    private final long maxAgeNanos;
+    // A plain lock: the author boards are access-ordered, so even a lookup mutates them
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // All guarded by lock. Global is null until loaded, the maps hold loaded boards only.
+    private Leaderboard global;
+    private final Map<String, Leaderboard> byLanguage = new HashMap<>();
+    private final LinkedHashMap<Long, Leaderboard> byAuthor;
+    // When the boards were last dropped; boards loaded since then are dropped together
+    private long clearedAt = System.nanoTime();
+
+    public Leaderboards(BookRepository bookRepository, LeaderboardProperties properties,
+            CatalogMemoryProperties memoryProperties) {
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+        this.maxAgeNanos = memoryProperties.maxAge().toNanos();
+        this.byAuthor = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Leaderboard> eldest) {
+                return size() > properties.maxAuthorBoards();
+            }
+        };
+    }
+
+    /**
+     * @param after Last book of the previous page as it was shown, or
+     *              {@code null} for the first page
+     * @return Up to {@code limit} books ranked after {@code after} by downloads
+     */
+    public List<BookListing> top(BookListing after, int limit) {
+        return read(after, limit, () -> global, board -> global = board,
+                rows -> bookRepository.findMostDownloadedListings(Limit.of(rows)),
+                (downloads, id, rows) -> bookRepository.findMostDownloadedListingsAfter(downloads, id, Limit.of(rows)),
+                (id, rows) -> bookRepository.findUncountedListingsAfter(id, Limit.of(rows)));
+    }
+
+    /**
+     * @return Books in {@code language} ranked after {@code after}, see {@link #top(BookListing, int)}
+     */
+    public List<BookListing> topByLanguage(String language, BookListing after, int limit) {
+        return read(after, limit, () -> byLanguage.get(language), board -> byLanguage.put(language, board),
+                rows -> bookRepository.findMostDownloadedListingsByLanguage(language, Limit.of(rows)),
+                (downloads, id, rows) -> bookRepository.findMostDownloadedListingsByLanguageAfter(language, downloads,
+                        id, Limit.of(rows)),
+                (id, rows) -> bookRepository.findUncountedListingsByLanguageAfter(language, id, Limit.of(rows)));
+    }
+
+    /**
+     * @return Books by the author ranked after {@code after}, see {@link #top(BookListing, int)}
+     */
+    public List<BookListing> topByAuthor(long authorId, BookListing after, int limit) {
+        return read(after, limit, () -> byAuthor.get(authorId), board -> byAuthor.put(authorId, board),
+                rows -> bookRepository.findMostDownloadedListingsByAuthorId(authorId, Limit.of(rows)),
+                (downloads, id, rows) -> bookRepository.findMostDownloadedListingsByAuthorIdAfter(authorId, downloads,
+                        id, Limit.of(rows)),
+                (id, rows) -> bookRepository.findUncountedListingsByAuthorIdAfter(authorId, id, Limit.of(rows)));
+    }
+
+    @EventListener
+    public void onBooksSaved(BooksSavedEvent event) {
+        lock.lock();
+        try {
+            for (Book book : event.books()) {
+                BookListing listing = new BookListing(book.getId(), book.getTitle(),
+                        book.getAuthor() != null ? book.getAuthor().getName() : null, book.getLanguage(),
+                        book.getDownloads());
+                if (global != null) {
+                    global.offer(listing);
+                }
+                Leaderboard language = byLanguage.get(book.getLanguage());
+                if (language != null) {
+                    language.offer(listing);
+                }
+                if (book.getAuthor() != null) {
+                    Leaderboard author = byAuthor.get(book.getAuthor().getId());
+                    if (author != null) {
+                        author.offer(listing);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onDownloadsRefreshed(DownloadsRefreshedEvent event) {
+        lock.lock();
+        try {
+            event.downloadsById().forEach((id, downloads) -> {
+                if (global != null) {
+                    global.updateDownloads(id, downloads);
+                }
+                byLanguage.values().forEach(board -> board.updateDownloads(id, downloads));
+                byAuthor.values().forEach(board -> board.updateDownloads(id, downloads));
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        lock.lock();
+        try {
+            clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds lock
+    private void clear() {
+        global = null;
+        byLanguage.clear();
+        byAuthor.clear();
+        clearedAt = System.nanoTime();
+    }
+
+    private List<BookListing> read(BookListing after, int limit, Supplier<Leaderboard> getter,
+            Consumer<Leaderboard> setter, IntFunction<List<BookListing>> loader, CountedAfter countedAfter,
+            UncountedAfter uncountedAfter) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+
+        List<BookListing> page;
+        lock.lock();
+        try {
+            if (System.nanoTime() - clearedAt >= maxAgeNanos) {
+                clear();
+            }
+            Leaderboard board = getter.get();
+            if (board == null || board.isStale()) {
+                board = new Leaderboard(properties.capacity(), loader.apply(properties.capacity()));
+                setter.accept(board);
+            }
+            page = after == null ? board.page(0, limit) : board.pageAfter(after, limit);
+            if (page.size() == limit || board.isComplete()) {
+                return page;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Deep page: the board ran out, continue in the database after the last book seen, reading only
+        // the missing rows
+        List<BookListing> rows = new ArrayList<>(page);
+        BookListing last = page.isEmpty() ? after : page.get(page.size() - 1);
+        if (last.downloads() != null) {
+            rows.addAll(countedAfter.find(last.downloads(), last.id(), limit - rows.size()));
+        }
+        if (rows.size() < limit) {
+            long afterId = last.downloads() == null ? last.id() : 0L;
+            rows.addAll(uncountedAfter.find(afterId, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    // Books ranked after a (downloads, id) pair, best first
+    @FunctionalInterface
+    private interface CountedAfter {
+        List<BookListing> find(double downloads, long id, int rows);
+    }
+
+    // Books without a download count, after an id
+    @FunctionalInterface
+    private interface UncountedAfter {
+        List<BookListing> find(long id, int rows);
+    }
+}
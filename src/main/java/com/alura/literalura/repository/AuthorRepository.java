@@ -1,10 +1,17 @@
 package com.alura.literalura.repository;
 
+import com.alura.literalura.dto.AuthorSummary;
 import com.alura.literalura.model.Author;
+import com.alura.literalura.search.IndexEntry;
+import com.alura.literalura.search.LifespanEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,12 +20,71 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
 
     Optional<Author> findByName(String name);
 
-    @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND (a.deathYear IS NULL OR a.deathYear >= :year)")
-    List<Author> findAuthorsAliveInYear(int year);
+    // Bulk lookup used by the batch import (one IN query per chunk)
+    List<Author> findByNameIn(Collection<String> names);
 
-    // Search author by name (case-insensitive, partial match)
+    // Search author by name (case-insensitive, partial match); ILIKE so the trigram index applies
+    @Query(value = "SELECT * FROM authors WHERE name ILIKE '%' || :name || '%'", nativeQuery = true)
     List<Author> findByNameContainsIgnoreCase(String name);
 
+    // Substring or fuzzy (trigram similarity) match, best matches first
+    @Query(value = """
+            SELECT * FROM authors
+            WHERE name ILIKE '%' || :term || '%' OR name % :term
+            ORDER BY similarity(name, :term) DESC, id
+            """,
+            countQuery = "SELECT count(*) FROM authors WHERE name ILIKE '%' || :term || '%' OR name % :term",
+            nativeQuery = true)
+    Page<Author> searchByName(String term, Pageable pageable);
+
+    // Substring match only, for databases without pg_trgm (embedded profile)
+    @Query("SELECT a FROM Author a WHERE a.name ILIKE CONCAT('%', :term, '%') ORDER BY a.name, a.id")
+    Page<Author> searchByNameSubstring(String term, Pageable pageable);
+
     // Find authors by birth year range
     List<Author> findByBirthYearBetween(Integer startYear, Integer endYear);
+
+    // Summary rows for the console screens: author columns only, the books are never touched
+
+    // Keyset pagination by name (id breaks ties); a null afterName starts at the beginning
+    @Query("""
+            SELECT new com.alura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear)
+            FROM Author a
+            WHERE :afterName IS NULL OR a.name > :afterName OR (a.name = :afterName AND a.id > :afterId)
+            ORDER BY a.name, a.id""")
+    List<AuthorSummary> findSummariesAfter(String afterName, long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear)
+            FROM Author a
+            WHERE a.id IN :ids""")
+    List<AuthorSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear)
+            FROM Author a
+            WHERE a.birthYear <= :year AND (a.deathYear IS NULL OR a.deathYear >= :year)
+            ORDER BY a.name""")
+    List<AuthorSummary> findSummariesAliveInYear(int year);
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.AuthorSummary(a.id, a.name, a.birthYear, a.deathYear)
+            FROM Author a
+            WHERE a.birthYear BETWEEN :startYear AND :endYear
+            ORDER BY a.birthYear, a.name""")
+    List<AuthorSummary> findSummariesByBirthYearBetween(Integer startYear, Integer endYear);
+
+    // Id and text only, to build the in-memory CatalogIndex
+    @Query("SELECT new com.alura.literalura.search.IndexEntry(a.id, a.name) FROM Author a")
+    List<IndexEntry> findAllIndexEntries();
+
+    // Dated authors in birth order, to build the in-memory AuthorLifespans
+    @Query("""
+            SELECT new com.alura.literalura.search.LifespanEntry(a.id, a.birthYear, a.deathYear)
+            FROM Author a
+            WHERE a.birthYear IS NOT NULL
+            ORDER BY a.birthYear, a.id""")
+    List<LifespanEntry> findAllLifespans();
 }
@@ -1,23 +1,216 @@
 package com.alura.literalura.repository;
 
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.CenturyStatistics;
+import com.alura.literalura.dto.DownloadSnapshot;
+import com.alura.literalura.dto.DownloadSummary;
+import com.alura.literalura.dto.GroupStatistics;
 import com.alura.literalura.model.Book;
+import com.alura.literalura.search.IndexEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    // ILIKE instead of the derived upper(title) LIKE, so the trigram index applies; author fetched in the same query
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.title ILIKE CONCAT('%', :title, '%') ORDER BY b.id LIMIT 1")
     Optional<Book> findByTitleContainsIgnoreCase(String title);
 
-    List<Book> findByLanguage(String language);
+    // Substring or fuzzy (trigram similarity) match, best matches first
+    @Query(value = """
+            SELECT * FROM books
+            WHERE title ILIKE '%' || :term || '%' OR title % :term
+            ORDER BY similarity(title, :term) DESC, downloads DESC NULLS LAST, id
+            """,
+            countQuery = "SELECT count(*) FROM books WHERE title ILIKE '%' || :term || '%' OR title % :term",
+            nativeQuery = true)
+    Page<Book> searchByTitle(String term, Pageable pageable);
+
+    // Substring match only, for databases without pg_trgm (embedded profile)
+    @Query("SELECT b FROM Book b WHERE b.title ILIKE CONCAT('%', :term, '%') ORDER BY b.downloads DESC NULLS LAST, b.id")
+    Page<Book> searchByTitleSubstring(String term, Pageable pageable);
+
+    // Dedupe lookup on the unique gutenberg_id index; authors and languages fetched for display
+    @EntityGraph(attributePaths = {"author", "authors", "languages"})
+    Optional<Book> findByGutenbergId(Long gutenbergId);
+
+    // Bulk dedupe used by the batch import (one IN query per chunk on the unique index)
+    @Query("SELECT b.gutenbergId FROM Book b WHERE b.gutenbergId IN :gutenbergIds")
+    Set<Long> findStoredGutenbergIds(Collection<Long> gutenbergIds);
 
     @Query("SELECT b FROM Book b WHERE b.language = :language")
     List<Book> findBooksByLanguage(String language);
 
-    // Top 10 most downloaded books
-    List<Book> findTop10ByOrderByDownloadsDesc();
+    // Listing rows for the console screens: one statement each, author name joined in, no entities loaded.
+    // The ones a menu option repeats with the same arguments are also served from the query cache
+
+    // Keyset pagination: resumes after the last id seen, so deep pages cost the same as the first
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.id > :afterId
+            ORDER BY b.id""")
+    List<BookListing> findListingsAfter(long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.id IN :ids""")
+    List<BookListing> findListingsByIdIn(Collection<Long> ids);
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.language = :language
+            ORDER BY b.id""")
+    List<BookListing> findListingsByLanguage(String language);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListings(Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.language = :language
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListingsByLanguage(String language, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b JOIN b.author a
+            WHERE a.id = :authorId
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListingsByAuthorId(Long authorId, Limit limit);
+
+    // Keyset continuations of the three rankings above, for pages beyond the in-memory leaderboards.
+    // The ranked ones resume after a (downloads, id) pair; "downloads <=" bounds the index range scan and
+    // the second condition only drops the ties already shown. Books without a count rank last and
+    // resume by id alone
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.downloads <= :afterDownloads AND (b.downloads < :afterDownloads OR b.id > :afterId)
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListingsAfter(double afterDownloads, long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.downloads IS NULL AND b.id > :afterId
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findUncountedListingsAfter(long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.language = :language
+              AND b.downloads <= :afterDownloads AND (b.downloads < :afterDownloads OR b.id > :afterId)
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListingsByLanguageAfter(String language, double afterDownloads, long afterId,
+            Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b LEFT JOIN b.author a
+            WHERE b.language = :language AND b.downloads IS NULL AND b.id > :afterId
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findUncountedListingsByLanguageAfter(String language, long afterId, Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b JOIN b.author a
+            WHERE a.id = :authorId
+              AND b.downloads <= :afterDownloads AND (b.downloads < :afterDownloads OR b.id > :afterId)
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findMostDownloadedListingsByAuthorIdAfter(Long authorId, double afterDownloads, long afterId,
+            Limit limit);
+
+    @Query("""
+            SELECT new com.alura.literalura.dto.BookListing(b.id, b.title, a.name, b.language, b.downloads)
+            FROM Book b JOIN b.author a
+            WHERE a.id = :authorId AND b.downloads IS NULL AND b.id > :afterId
+            ORDER BY b.downloads DESC NULLS LAST, b.id""")
+    List<BookListing> findUncountedListingsByAuthorIdAfter(Long authorId, long afterId, Limit limit);
+
+    // Whole table as a cursor; must be consumed inside a (read-only) transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author ORDER BY b.id")
+    Stream<Book> streamAllByOrderById();
+
+    // Keyset batches of the books whose download count can be refreshed from Gutendex
+    @Query("""
+            SELECT new com.alura.literalura.dto.DownloadSnapshot(b.id, b.gutenbergId, b.downloads)
+            FROM Book b
+            WHERE b.gutenbergId IS NOT NULL AND b.id > :afterId
+            ORDER BY b.id""")
+    List<DownloadSnapshot> findDownloadSnapshots(long afterId, Limit limit);
+
+    // Aggregates for the statistics screen: each returns a handful of rows, whatever the catalog size,
+    // and is served from the query cache until the books or authors change
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.DownloadSummary(
+                count(b), coalesce(sum(b.downloads), 0.0), avg(b.downloads), min(b.downloads), max(b.downloads),
+                percentile_cont(0.5) WITHIN GROUP (ORDER BY b.downloads),
+                percentile_cont(0.9) WITHIN GROUP (ORDER BY b.downloads))
+            FROM Book b""")
+    DownloadSummary summarizeDownloads();
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.GroupStatistics(
+                b.language, count(b), coalesce(sum(b.downloads), 0.0), avg(b.downloads))
+            FROM Book b
+            GROUP BY b.language
+            ORDER BY count(b) DESC, b.language""")
+    List<GroupStatistics> summarizeByLanguage();
+
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.GroupStatistics(
+                a.name, count(b), coalesce(sum(b.downloads), 0.0), avg(b.downloads))
+            FROM Book b JOIN b.author a
+            GROUP BY a.id, a.name
+            ORDER BY coalesce(sum(b.downloads), 0.0) DESC, a.name""")
+    List<GroupStatistics> summarizeTopAuthors(Limit limit);
+
+    // floor instead of integer division so that authors born BC land in the right century
+    @CacheableQuery
+    @Query("""
+            SELECT new com.alura.literalura.dto.CenturyStatistics(
+                cast(floor(a.birthYear / 100.0) * 100 as Integer), count(DISTINCT a), count(b),
+                coalesce(sum(b.downloads), 0.0))
+            FROM Book b JOIN b.author a
+            WHERE a.birthYear IS NOT NULL
+            GROUP BY cast(floor(a.birthYear / 100.0) * 100 as Integer)
+            ORDER BY cast(floor(a.birthYear / 100.0) * 100 as Integer)""")
+    List<CenturyStatistics> summarizeByCentury();
+
+    // Id and text only, to build the in-memory CatalogIndex
+    @Query("SELECT new com.alura.literalura.search.IndexEntry(b.id, b.title) FROM Book b")
+    List<IndexEntry> findAllIndexEntries();
 }
@@ -0,0 +1,28 @@
+package com.alura.literalura.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a repository query in the {@value #REGION} region of
+ * the Hibernate query cache.
+ * <p>
+ * A cached result is served until a table it reads is written through JPA;
+ * writes made with plain JDBC are covered by {@link SecondLevelCache}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheableQuery.REGION)
+})
+public @interface CacheableQuery {
+
+    String REGION = "catalog-queries";
+}
@@ -0,0 +1,20 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.BookDTO;
+
+import java.util.List;
+
+/**
+ * Sink for the bulk catalog import. Implementations must skip books that are
+ * already stored instead of failing the whole batch.
+ */
+public interface CatalogWriter {
+
+    /**
+     * Persists a batch of books together with their authors.
+     *
+     * @param books Decoded books, in any order
+     * @return Number of books actually inserted
+     */
+    int write(List<BookDTO> books);
+}
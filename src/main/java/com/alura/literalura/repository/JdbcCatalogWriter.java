@@ -0,0 +1,184 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes imported books with plain JDBC batches: one batch for the authors,
+ * one query to resolve their ids, one batch for the books and one for each
+ * link table. Books whose Gutenberg id is already stored (and authors whose
+ * name is) are skipped by the database with {@code ON CONFLICT DO NOTHING},
+ * so concurrent imports never need a read before the write.
+ * <p>
+ * Ids are taken from the same sequences Hibernate uses. With the pooled-lo
+ * optimizer every {@code nextval} reserves the block {@code [v, v + 50)}, so
+ * ids handed out here never overlap the ones Hibernate allocates.
+ */
+@Repository
+public class JdbcCatalogWriter implements CatalogWriter {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_AUTHOR = """
+            INSERT INTO authors (id, name, birth_year, death_year)
+            VALUES (:id, :name, :birthYear, :deathYear)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String SELECT_AUTHOR_IDS = "SELECT id, name FROM authors WHERE name IN (:names)";
+
+    private static final String INSERT_BOOK = """
+            INSERT INTO books (id, gutenberg_id, title, author_id, language, downloads)
+            VALUES (:id, :gutenbergId, :title, :authorId, :language, :downloads)
+            ON CONFLICT DO NOTHING""";
+
+    private static final String INSERT_BOOK_AUTHOR = """
+            INSERT INTO book_authors (book_id, author_id, position)
+            VALUES (:bookId, :authorId, :position)""";
+
+    private static final String INSERT_BOOK_LANGUAGE = """
+            INSERT INTO book_languages (book_id, language)
+            VALUES (:bookId, :language)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcCatalogWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public int write(List<BookDTO> books) {
+        Map<String, AuthorDTO> authors = new LinkedHashMap<>();
+        for (BookDTO book : books) {
+            for (AuthorDTO author : authorsOf(book)) {
+                authors.putIfAbsent(truncate(author.name()), author);
+            }
+        }
+
+        Map<String, Long> authorIds = authors.isEmpty() ? Map.of() : insertAuthors(authors);
+
+        long[] ids = nextIds("books_seq", books.size());
+        List<MapSqlParameterSource> rows = new ArrayList<>(books.size());
+        for (BookDTO book : books) {
+            List<AuthorDTO> bookAuthors = authorsOf(book);
+            Long authorId = bookAuthors.isEmpty() ? null : authorIds.get(truncate(bookAuthors.get(0).name()));
+            String language = book.languages() == null || book.languages().isEmpty()
+                    ? "unknown"
+                    : book.languages().get(0);
+            rows.add(new MapSqlParameterSource()
+                    .addValue("id", ids[rows.size()])
+                    .addValue("gutenbergId", book.id())
+                    .addValue("title", truncate(book.title()))
+                    .addValue("authorId", authorId)
+                    .addValue("language", language)
+                    .addValue("downloads", book.downloadCount()));
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_BOOK, rows.toArray(new MapSqlParameterSource[0]));
+
+        // Link rows only for the books this batch actually inserted
+        int inserted = 0;
+        List<MapSqlParameterSource> authorLinks = new ArrayList<>();
+        List<MapSqlParameterSource> languageLinks = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] <= 0) {
+                continue;
+            }
+            inserted += counts[i];
+            BookDTO book = books.get(i);
+            Set<Long> linkedAuthors = new LinkedHashSet<>();
+            for (AuthorDTO author : authorsOf(book)) {
+                Long authorId = authorIds.get(truncate(author.name()));
+                if (authorId != null && linkedAuthors.add(authorId)) {
+                    authorLinks.add(new MapSqlParameterSource()
+                            .addValue("bookId", ids[i])
+                            .addValue("authorId", authorId)
+                            .addValue("position", linkedAuthors.size() - 1));
+                }
+            }
+            if (book.languages() != null) {
+                for (String language : new LinkedHashSet<>(book.languages())) {
+                    languageLinks.add(new MapSqlParameterSource()
+                            .addValue("bookId", ids[i])
+                            .addValue("language", language));
+                }
+            }
+        }
+        if (!authorLinks.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_AUTHOR, authorLinks.toArray(new MapSqlParameterSource[0]));
+        }
+        if (!languageLinks.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_LANGUAGE, languageLinks.toArray(new MapSqlParameterSource[0]));
+        }
+        return inserted;
+    }
+
+    private Map<String, Long> insertAuthors(Map<String, AuthorDTO> authors) {
+        long[] newIds = nextIds("authors_seq", authors.size());
+        List<MapSqlParameterSource> rows = new ArrayList<>(authors.size());
+        for (Map.Entry<String, AuthorDTO> entry : authors.entrySet()) {
+            rows.add(new MapSqlParameterSource()
+                    .addValue("id", newIds[rows.size()])
+                    .addValue("name", entry.getKey())
+                    .addValue("birthYear", entry.getValue().birthYear())
+                    .addValue("deathYear", entry.getValue().deathYear()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUTHOR, rows.toArray(new MapSqlParameterSource[0]));
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(SELECT_AUTHOR_IDS, Map.of("names", authors.keySet()),
+                rs -> {
+                    ids.put(rs.getString("name"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Reserves {@code count} ids in one round trip, one sequence block per
+     * {@value #ID_BLOCK_SIZE} rows.
+     */
+    private long[] nextIds(String sequence, int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, :blocks)",
+                Map.of("blocks", blocks), Long.class);
+
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / ID_BLOCK_SIZE) + i % ID_BLOCK_SIZE;
+        }
+        return ids;
+    }
+
+    private static List<AuthorDTO> authorsOf(BookDTO book) {
+        if (book.authors() == null) {
+            return List.of();
+        }
+        return book.authors().stream().filter(author -> author.name() != null).toList();
+    }
+
+    /**
+     * @return {@code value} cut to the length of the text columns, as it is
+     *         stored; also used by the JPA paths so both store the same names
+     */
+    public static String truncate(String value) {
+        if (value == null || value.length() <= MAX_TEXT_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_TEXT_LENGTH);
+    }
+}
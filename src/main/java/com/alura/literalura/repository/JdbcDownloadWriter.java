@@ -0,0 +1,46 @@
+package com.alura.literalura.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes refreshed download counts as one JDBC batch of single-row UPDATEs,
+ * without loading the books.
+ */
+@Repository
+public class JdbcDownloadWriter {
+
+    private static final String UPDATE_DOWNLOADS = "UPDATE books SET downloads = :downloads WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcDownloadWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param downloadsById New download count by book id
+     * @return Number of rows updated
+     */
+    @Transactional
+    public int updateDownloads(Map<Long, Double> downloadsById) {
+        List<MapSqlParameterSource> rows = new ArrayList<>(downloadsById.size());
+        downloadsById.forEach((id, downloads) -> rows.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("downloads", downloads)));
+
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_DOWNLOADS, rows.toArray(new MapSqlParameterSource[0]))) {
+            if (count > 0) {
+                updated += count;
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,68 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.CacheRegionStats;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the Hibernate second-level and query cache consistent with writes
+ * that bypass JPA, and reports its hit ratios.
+ * <p>
+ * Writes through JPA (single searches, title imports, new authors) update or
+ * invalidate the cached data by themselves. The JDBC writers don't, so their
+ * events evict here: the whole cache after a catalog import, and the changed
+ * books plus every cached query after a download refresh.
+ */
+@Component
+public class SecondLevelCache {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @EventListener
+    public void onDownloadsRefreshed(DownloadsRefreshedEvent event) {
+        Cache cache = sessionFactory.getCache();
+        event.downloadsById().keySet().forEach(id -> cache.evictEntityData(Book.class, id));
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * @return Counters of every entity, collection and query region, by name;
+     *         all zero unless {@code hibernate.generate_statistics} is on
+     */
+    public List<CacheRegionStats> stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheRegionStats> stats = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics counters = statistics.getCacheRegionStatistics(region);
+            if (counters != null) {
+                stats.add(new CacheRegionStats(region, counters.getHitCount(), counters.getMissCount(),
+                        counters.getPutCount()));
+            }
+        }
+        return stats;
+    }
+}
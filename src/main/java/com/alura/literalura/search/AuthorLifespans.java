@@ -0,0 +1,109 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.event.BooksSavedEvent;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.AuthorRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts of the stored authors alive in each year of a range, answered from
+ * a {@link LifespanIndex} instead of one query per year.
+ * <p>
+ * Loaded from the repository on first use (in birth order, so the build is a
+ * sequence of appends), kept up to date from {@link BooksSavedEvent}s and
+ * dropped (to be reloaded lazily) on a {@link CatalogChangedEvent} or once
+ * older than {@link CatalogMemoryProperties#maxAge()}.
+ */
+@Component
+public class AuthorLifespans {
+
+    private final AuthorRepository authorRepository;
+    private final long maxAgeNanos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Null until loaded. Guarded by lock.
+    private LifespanIndex index;
+    private long loadedAt;
+
+    public AuthorLifespans(AuthorRepository authorRepository, CatalogMemoryProperties properties) {
+        this.authorRepository = authorRepository;
+        this.maxAgeNanos = properties.maxAge().toNanos();
+    }
+
+    /**
+     * @return {@code counts[i]} is the number of authors alive in {@code fromYear + i}
+     */
+    public int[] aliveCounts(int fromYear, int toYear) {
+        lockLoaded();
+        try {
+            return index.aliveCounts(fromYear, toYear);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBooksSaved(BooksSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            for (Book book : event.books()) {
+                for (Author author : book.getAuthors()) {
+                    if (author.getBirthYear() != null) {
+                        index.add(author.getId(), author.getBirthYear(), author.getDeathYear());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns holding the read lock, with the index loaded. Loading
+    // downgrades the write lock, so a CatalogChangedEvent cannot drop the
+    // index between the load and the caller's lookup.
+    private void lockLoaded() {
+        lock.readLock().lock();
+        if (isFresh()) {
+            return;
+        }
+        lock.readLock().unlock();
+
+        lock.writeLock().lock();
+        try {
+            if (!isFresh()) {
+                LifespanIndex loaded = new LifespanIndex();
+                for (LifespanEntry entry : authorRepository.findAllLifespans()) {
+                    loaded.add(entry.id(), entry.birthYear(), entry.deathYear());
+                }
+                index = loaded;
+                loadedAt = System.nanoTime();
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFresh() {
+        return index != null && System.nanoTime() - loadedAt < maxAgeNanos;
+    }
+}
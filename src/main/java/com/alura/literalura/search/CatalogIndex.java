@@ -0,0 +1,134 @@
+package com.alura.literalura.search;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.event.BooksSavedEvent;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.AuthorRepository;
+import com.alura.literalura.repository.BookRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process token search over book titles and author names, answered
+ * without touching the database.
+ * <p>
+ * Loaded from the repositories on first use, kept up to date from
+ * {@link BooksSavedEvent}s and dropped (to be reloaded lazily) on a
+ * {@link CatalogChangedEvent} or once older than
+ * {@link CatalogMemoryProperties#maxAge()}, so that writes made by other
+ * processes show up.
+ */
+@Component
+public class CatalogIndex {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final long maxAgeNanos;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Both null until loaded. Guarded by lock.
+    private TokenIndex books;
+    private TokenIndex authors;
+    private long loadedAt;
+
+    public CatalogIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+            CatalogMemoryProperties properties) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.maxAgeNanos = properties.maxAge().toNanos();
+    }
+
+    /**
+     * @return Ids of the books whose title contains every word of {@code text},
+     *         closest matches first
+     */
+    public long[] searchBooks(String text, int limit) {
+        lockLoaded();
+        try {
+            return books.search(text, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Ids of the authors whose name contains every word of {@code text},
+     *         closest matches first
+     */
+    public long[] searchAuthors(String text, int limit) {
+        lockLoaded();
+        try {
+            return authors.search(text, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onBooksSaved(BooksSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (books == null) {
+                return;
+            }
+            for (Book book : event.books()) {
+                books.add(book.getId(), book.getTitle());
+                for (Author author : book.getAuthors()) {
+                    authors.add(author.getId(), author.getName());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            books = null;
+            authors = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns holding the read lock, with the indexes loaded. Loading
+    // downgrades the write lock, so a CatalogChangedEvent cannot drop the
+    // indexes between the load and the caller's search.
+    private void lockLoaded() {
+        lock.readLock().lock();
+        if (isFresh()) {
+            return;
+        }
+        lock.readLock().unlock();
+
+        lock.writeLock().lock();
+        try {
+            if (!isFresh()) {
+                TokenIndex bookIndex = new TokenIndex();
+                for (IndexEntry entry : bookRepository.findAllIndexEntries()) {
+                    bookIndex.add(entry.id(), entry.text());
+                }
+                TokenIndex authorIndex = new TokenIndex();
+                for (IndexEntry entry : authorRepository.findAllIndexEntries()) {
+                    authorIndex.add(entry.id(), entry.text());
+                }
+                books = bookIndex;
+                authors = authorIndex;
+                loadedAt = System.nanoTime();
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFresh() {
+        return books != null && System.nanoTime() - loadedAt < maxAgeNanos;
+    }
+}
@@ -0,0 +1,7 @@
+package com.alura.literalura.search;
+
+/**
+ * Row loaded into a {@link TokenIndex}: an entity id and the text to index.
+ */
+public record IndexEntry(Long id, String text) {
+}
@@ -0,0 +1,8 @@
+package com.alura.literalura.search;
+
+/**
+ * Row loaded into a {@link LifespanIndex}: an author id and its life years,
+ * {@code deathYear} being {@code null} for living (or undated) authors.
+ */
+public record LifespanEntry(Long id, Integer birthYear, Integer deathYear) {
+}
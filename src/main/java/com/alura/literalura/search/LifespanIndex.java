@@ -0,0 +1,126 @@
+package com.alura.literalura.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Author lifespans for counting the authors alive in each year of a range.
+ * An author is alive in a year when born in or before it, and dead in or after
+ * it or without a death year, the same rule as
+ * {@code AuthorRepository.findSummariesAliveInYear}.
+ * <p>
+ * Authors with a death year are kept in primitive arrays sorted by birth year,
+ * so a range only scans the authors born before its end. Authors without a
+ * death year live in a second sorted array. Adding authors in birth order
+ * appends; other orders insert in O(n). Not thread-safe.
+ */
+public class LifespanIndex {
+
+    private final Set<Long> indexed = new HashSet<>();
+
+    // Authors with a death year, sorted by birth year
+    private int[] births = new int[256];
+    private int[] deaths = new int[256];
+    private long[] ids = new long[256];
+    private int size;
+
+    // Authors without a death year, sorted by birth year
+    private int[] openBirths = new int[64];
+    private long[] openIds = new long[64];
+    private int openSize;
+
+    /**
+     * Indexes an author. Ids already indexed are ignored.
+     *
+     * @param deathYear {@code null} if the author is alive or the year is unknown
+     */
+    public void add(long id, int birthYear, Integer deathYear) {
+        if (!indexed.add(id)) {
+            return;
+        }
+
+        if (deathYear == null) {
+            if (openSize == openIds.length) {
+                openBirths = Arrays.copyOf(openBirths, openSize * 2);
+                openIds = Arrays.copyOf(openIds, openSize * 2);
+            }
+            int at = upperBound(openBirths, openSize, birthYear);
+            System.arraycopy(openBirths, at, openBirths, at + 1, openSize - at);
+            System.arraycopy(openIds, at, openIds, at + 1, openSize - at);
+            openBirths[at] = birthYear;
+            openIds[at] = id;
+            openSize++;
+            return;
+        }
+
+        if (size == ids.length) {
+            births = Arrays.copyOf(births, size * 2);
+            deaths = Arrays.copyOf(deaths, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int at = upperBound(births, size, birthYear);
+        System.arraycopy(births, at, births, at + 1, size - at);
+        System.arraycopy(deaths, at, deaths, at + 1, size - at);
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        births[at] = birthYear;
+        deaths[at] = deathYear;
+        ids[at] = id;
+        size++;
+    }
+
+    public int size() {
+        return size + openSize;
+    }
+
+    /**
+     * Counts the authors alive in every year of a range in one pass over the
+     * index (sweep line): each lifespan adds one at its first year in the
+     * range and removes it after its last one, and a running sum turns those
+     * deltas into counts.
+     *
+     * @return {@code counts[i]} is the number of authors alive in {@code fromYear + i}
+     */
+    public int[] aliveCounts(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear");
+        }
+        int length = Math.toIntExact((long) toYear - fromYear + 1);
+        int[] deltas = new int[length + 1];
+
+        int born = upperBound(births, size, toYear);
+        for (int i = 0; i < born; i++) {
+            if (deaths[i] >= fromYear && deaths[i] >= births[i]) {
+                deltas[Math.max(births[i], fromYear) - fromYear]++;
+                deltas[Math.min(deaths[i], toYear) - fromYear + 1]--;
+            }
+        }
+        int openBorn = upperBound(openBirths, openSize, toYear);
+        for (int i = 0; i < openBorn; i++) {
+            deltas[Math.max(openBirths[i], fromYear) - fromYear]++;
+        }
+
+        int[] counts = new int[length];
+        int alive = 0;
+        for (int i = 0; i < length; i++) {
+            alive += deltas[i];
+            counts[i] = alive;
+        }
+        return counts;
+    }
+
+    // First index whose value is > key
+    private static int upperBound(int[] values, int size, int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
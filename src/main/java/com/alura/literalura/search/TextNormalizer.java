@@ -0,0 +1,61 @@
+package com.alura.literalura.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search tokens: lower case, accents folded ("Quijote" and
+ * "quijoté" match), ligatures expanded, anything that is not a letter or a
+ * digit treated as a separator.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isLetterOrDigit(folded.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(folded.substring(start));
+        }
+        return tokens;
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'ß' -> folded.append("ss");
+                case 'æ', 'Æ' -> folded.append("ae");
+                case 'œ', 'Œ' -> folded.append("oe");
+                case 'ø', 'Ø' -> folded.append('o');
+                case 'ł', 'Ł' -> folded.append('l');
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+}
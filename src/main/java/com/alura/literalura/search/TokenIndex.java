@@ -0,0 +1,155 @@
+package com.alura.literalura.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from normalized tokens to entity ids.
+ * <p>
+ * Every indexed entity gets a dense ordinal; posting lists are growable
+ * {@code int[]} of ordinals, sorted because ordinals only grow. A query
+ * matches the entities that contain all its tokens, the last one as a prefix
+ * so that partially typed words already match. Not thread-safe.
+ */
+public class TokenIndex {
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[1024];
+    private int[] tokenCounts = new int[1024];
+    private int size;
+
+    /**
+     * Indexes {@code text} under {@code id}. Ids already indexed are ignored.
+     */
+    public void add(long id, String text) {
+        if (ordinals.containsKey(id)) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            tokenCounts = Arrays.copyOf(tokenCounts, size * 2);
+        }
+
+        List<String> tokens = TextNormalizer.tokenize(text);
+        int ordinal = size++;
+        ids[ordinal] = id;
+        tokenCounts[ordinal] = tokens.size();
+        ordinals.put(id, ordinal);
+        for (String token : new LinkedHashSet<>(tokens)) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(ordinal);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the entities containing every token of {@code query}.
+     *
+     * @param query Free text; normalized like the indexed text
+     * @param limit Maximum number of ids to return
+     * @return Matching ids, closest matches (fewest extra tokens) first
+     */
+    public long[] search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        List<int[]> lists = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            int[] matches = i == tokens.size() - 1 ? prefixMatches(tokens.get(i)) : exactMatches(tokens.get(i));
+            if (matches.length == 0) {
+                return new long[0];
+            }
+            lists.add(matches);
+        }
+        // Intersect from the rarest token so intermediate results stay small
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+
+        long[] ranked = new long[result.length];
+        for (int i = 0; i < result.length; i++) {
+            ranked[i] = ((long) tokenCounts[result[i]] << 32) | result[i];
+        }
+        Arrays.sort(ranked);
+
+        long[] matches = new long[Math.min(limit, ranked.length)];
+        for (int i = 0; i < matches.length; i++) {
+            matches[i] = ids[(int) ranked[i]];
+        }
+        return matches;
+    }
+
+    private int[] exactMatches(String token) {
+        Postings list = postings.get(token);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+    private int[] prefixMatches(String prefix) {
+        SortedMap<String, Postings> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.isEmpty()) {
+            return new int[0];
+        }
+        if (range.size() == 1) {
+            return range.values().iterator().next().toArray();
+        }
+
+        BitSet union = new BitSet(size);
+        for (Postings list : range.values()) {
+            for (int i = 0; i < list.size; i++) {
+                union.set(list.ordinals[i]);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ordinals, size);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.repository.AuthorRepository;
+import com.alura.literalura.repository.JdbcCatalogWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds or creates authors by name, safely under concurrent imports.
+ * <p>
+ * Resolved authors are kept in a name cache, so an author seen before costs
+ * no query. The cache is bounded and, like the other in-memory structures,
+ * forgets entries after {@link CatalogMemoryProperties#maxAge()}, so authors
+ * deleted or merged by another process are read again. Misses are looked up with one IN query, and the ones still
+ * missing are created while holding a striped lock per name, so two threads
+ * of this process never insert the same author. An insert can still lose
+ * to another process or to the bulk JDBC import. It then hits the unique
+ * index on {@code authors.name} and reads back the row that won instead of
+ * failing.
+ * <p>
+ * Authors are created in their own short transactions. Call this before
+ * opening the transaction that saves the books, so a lost race never marks
+ * that transaction rollback-only. The returned entities are detached and
+ * meant to be referenced by new books.
+ */
+@Component
+public class AuthorResolver {
+
+    private static final int STRIPES = 64;
+    // Same bound as the authors region of the second-level cache (caffeine.conf)
+    private static final int CACHE_SIZE = 10_000;
+
+    private final AuthorRepository authorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Author> cache;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public AuthorResolver(AuthorRepository authorRepository, PlatformTransactionManager transactionManager,
+            CatalogMemoryProperties properties) {
+        this.authorRepository = authorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(CACHE_SIZE)
+                .expireAfterWrite(properties.maxAge())
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the stored author for every name in {@code authors}, creating
+     * the missing ones with the given years.
+     *
+     * @param authors Authors to resolve; repeated and null names are ignored.
+     *                Names longer than the column are stored cut, like the
+     *                JDBC import does
+     * @return Authors by name, as given in {@code authors}
+     * @throws RuntimeException if an author can be neither inserted nor read
+     */
+    public Map<String, Author> resolve(Collection<AuthorDTO> authors) {
+        // Keyed by the stored (truncated) name from here on
+        Map<String, Author> resolved = new HashMap<>();
+        Map<String, AuthorDTO> missing = new LinkedHashMap<>();
+        for (AuthorDTO author : authors) {
+            String name = JdbcCatalogWriter.truncate(author.name());
+            if (name == null || resolved.containsKey(name)) {
+                continue;
+            }
+            Author cached = cache.getIfPresent(name);
+            if (cached != null) {
+                resolved.put(name, cached);
+            } else {
+                missing.putIfAbsent(name, new AuthorDTO(name, author.birthYear(), author.deathYear()));
+            }
+        }
+        if (!missing.isEmpty()) {
+            resolveMissing(missing, resolved);
+        }
+
+        Map<String, Author> byGivenName = new HashMap<>();
+        for (AuthorDTO author : authors) {
+            if (author.name() != null) {
+                byGivenName.put(author.name(), resolved.get(JdbcCatalogWriter.truncate(author.name())));
+            }
+        }
+        return byGivenName;
+    }
+
+    // Inserts or reads the authors not found in the cache, adding them to resolved
+    private void resolveMissing(Map<String, AuthorDTO> missing, Map<String, Author> resolved) {
+        // Stripes are always taken in index order, so two batches never deadlock
+        int[] locked = missing.keySet().stream().mapToInt(AuthorResolver::stripeOf).distinct().sorted().toArray();
+        for (int stripe : locked) {
+            stripes[stripe].lock();
+        }
+        try {
+            // Another thread may have resolved some of them while we waited
+            missing.keySet().removeIf(name -> remember(resolved, cache.getIfPresent(name)));
+            if (!missing.isEmpty()) {
+                for (Author author : authorRepository.findByNameIn(missing.keySet())) {
+                    cache.put(author.getName(), author);
+                    resolved.put(author.getName(), author);
+                    missing.remove(author.getName());
+                }
+            }
+            if (!missing.isEmpty()) {
+                for (Author author : create(missing.values())) {
+                    cache.put(author.getName(), author);
+                    resolved.put(author.getName(), author);
+                }
+            }
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Forgets the cached authors. The catalog import writes authors behind
+     * JPA's back, and a cleared database would leave stale ids here.
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    private List<Author> create(Collection<AuthorDTO> authors) {
+        try {
+            // Usual case: one transaction with a JDBC batch of inserts
+            return transactionTemplate.execute(status -> authorRepository.saveAllAndFlush(
+                    authors.stream().map(AuthorResolver::newAuthor).toList()));
+        } catch (DataIntegrityViolationException e) {
+            // Some were inserted elsewhere since the IN query: go one by one
+            List<Author> created = new ArrayList<>(authors.size());
+            for (AuthorDTO author : authors) {
+                created.add(insertOrReselect(author));
+            }
+            return created;
+        }
+    }
+
+    private Author insertOrReselect(AuthorDTO author) {
+        try {
+            return transactionTemplate.execute(status -> authorRepository.saveAndFlush(newAuthor(author)));
+        } catch (DataIntegrityViolationException e) {
+            return authorRepository.findByName(author.name()).orElseThrow(() -> e);
+        }
+    }
+
+    private static boolean remember(Map<String, Author> resolved, Author author) {
+        if (author == null) {
+            return false;
+        }
+        resolved.put(author.getName(), author);
+        return true;
+    }
+
+    private static Author newAuthor(AuthorDTO author) {
+        return new Author(author.name(), author.birthYear(), author.deathYear());
+    }
+
+    private static int stripeOf(String name) {
+        return (name.hashCode() & 0x7fffffff) % STRIPES;
+    }
+}
@@ -0,0 +1,218 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.BookListing;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Writes book listings as CSV (RFC 4180, with a header row) or JSON Lines
+ * (one object per line), for result sets too large to page through on the
+ * console.
+ * <p>
+ * Each row is built in one reusable {@link StringBuilder} and copied through a
+ * reusable char array into a writer buffered by {@value #BUFFER_SIZE}
+ * characters, so writing a row allocates nothing. Files are written through a
+ * {@link FileChannel} in UTF-8.
+ */
+public class BookListingExporter implements Closeable {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    public enum Format {
+        CSV, JSON_LINES;
+
+        /**
+         * @return The format of the file extension: {@code .csv}, or
+         *         {@code .jsonl} / {@code .ndjson}
+         * @throws IllegalArgumentException for any other extension
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSON_LINES;
+            }
+            throw new IllegalArgumentException("El archivo debe terminar en .csv, .jsonl o .ndjson: " + file);
+        }
+    }
+
+    private final Writer out;
+    private final Format format;
+    private final StringBuilder row = new StringBuilder(256);
+    private char[] chars = new char[256];
+    private long rows;
+
+    /**
+     * @param out    Destination; closed with the exporter
+     * @param format Row format; CSV writes its header right away
+     */
+    public BookListingExporter(Writer out, Format format) {
+        this.out = out;
+        this.format = format;
+        if (format == Format.CSV) {
+            row.append("id,title,author,language,downloads\n");
+            flushRow();
+        }
+    }
+
+    /**
+     * Creates or truncates {@code file} and exports to it in the format of its
+     * extension, see {@link Format#of(Path)}.
+     */
+    public static BookListingExporter open(Path file) throws IOException {
+        Format format = Format.of(file);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new BookListingExporter(
+                new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE), format);
+    }
+
+    /**
+     * @throws UncheckedIOException if the destination cannot be written
+     */
+    public void write(BookListing book) {
+        if (format == Format.CSV) {
+            appendCsv(book);
+        } else {
+            appendJson(book);
+        }
+        flushRow();
+        rows++;
+    }
+
+    /**
+     * @return Rows written so far, header excluded
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Writes out the buffered rows without closing the destination.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void appendCsv(BookListing book) {
+        row.append(book.id()).append(',');
+        csvField(book.title());
+        row.append(',');
+        csvField(book.authorName());
+        row.append(',');
+        csvField(book.language());
+        row.append(',');
+        if (book.downloads() != null) {
+            number(book.downloads());
+        }
+        row.append('\n');
+    }
+
+    private void appendJson(BookListing book) {
+        row.append("{\"id\":").append(book.id()).append(",\"title\":");
+        jsonString(book.title());
+        row.append(",\"author\":");
+        jsonString(book.authorName());
+        row.append(",\"language\":");
+        jsonString(book.language());
+        row.append(",\"downloads\":");
+        if (book.downloads() == null) {
+            row.append("null");
+        } else {
+            number(book.downloads());
+        }
+        row.append("}\n");
+    }
+
+    private void csvField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void jsonString(String value) {
+        if (value == null) {
+            row.append("null");
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> row.append("\\\"");
+                case '\\' -> row.append("\\\\");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                case '\t' -> row.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        row.append("\\u00")
+                                .append(Character.forDigit(c >> 4, 16))
+                                .append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        row.append(c);
+                    }
+                }
+            }
+        }
+        row.append('"');
+    }
+
+    // Download counts are whole numbers stored as doubles; print them without ".0"
+    private void number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            row.append((long) value);
+        } else {
+            row.append(value);
+        }
+    }
+
+    private void flushRow() {
+        int length = row.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        row.getChars(0, length, chars, 0);
+        row.setLength(0);
+        try {
+            out.write(chars, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing the export file", e);
+        }
+    }
+}
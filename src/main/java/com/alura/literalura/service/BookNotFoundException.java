@@ -0,0 +1,11 @@
+package com.alura.literalura.service;
+
+/**
+ * Gutendex has no book matching the title searched.
+ */
+public class BookNotFoundException extends RuntimeException {
+
+    public BookNotFoundException(String message) {
+        super(message);
+    }
+}
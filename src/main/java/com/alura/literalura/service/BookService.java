@@ -1,84 +1,275 @@
 package com.alura.literalura.service;
 
 import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.AuthorSummary;
 import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.BookStatistics;
+import com.alura.literalura.dto.CacheRegionStats;
+import com.alura.literalura.dto.CacheStats;
 import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.dto.TitleImportReport;
+import com.alura.literalura.event.BooksSavedEvent;
 import com.alura.literalura.model.Author;
 import com.alura.literalura.model.Book;
+import com.alura.literalura.ranking.Leaderboards;
 import com.alura.literalura.repository.AuthorRepository;
 import com.alura.literalura.repository.BookRepository;
+import com.alura.literalura.repository.SecondLevelCache;
+import com.alura.literalura.search.AuthorLifespans;
+import com.alura.literalura.search.CatalogIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+// Every public method is timed on book.service (see LatencyReportService)
 @Service
+@Timed("book.service")
 public class BookService {
 
+    // Matches hibernate.jdbc.batch_size, so each chunk commits as one batch per table
+    private static final int IMPORT_CHUNK_SIZE = 50;
+    // Rows streamed between persistence context clears in forEachBook
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+    // Authors listed in the statistics breakdown
+    private static final int STATISTICS_TOP_AUTHORS = 10;
+    // Rows per window of getBooksPage and getAuthorsPage
+    public static final int LISTING_PAGE_SIZE = 20;
+    // Longest range counted by getAliveAuthorCounts; the counts are one int per year
+    public static final int MAX_TIMELINE_YEARS = 5000;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
-    private final GutendexService gutendexService;
+    private final GutendexCache gutendexCache;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogIndex catalogIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final Leaderboards leaderboards;
+    private final AuthorLifespans authorLifespans;
+    private final AuthorResolver authorResolver;
+    private final SecondLevelCache secondLevelCache;
+    // pg_trgm is only available on PostgreSQL; other databases (embedded H2) get substring search
+    private final boolean trigramSearch;
 
     public BookService(BookRepository bookRepository, AuthorRepository authorRepository,
-            GutendexService gutendexService) {
+            GutendexCache gutendexCache, PlatformTransactionManager transactionManager,
+            CatalogIndex catalogIndex, ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+            Leaderboards leaderboards, AuthorLifespans authorLifespans, AuthorResolver authorResolver,
+            SecondLevelCache secondLevelCache) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
-        this.gutendexService = gutendexService;
+        this.gutendexCache = gutendexCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogIndex = catalogIndex;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.leaderboards = leaderboards;
+        this.authorLifespans = authorLifespans;
+        this.authorResolver = authorResolver;
+        this.secondLevelCache = secondLevelCache;
+        this.trigramSearch = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
     }
 
     /**
      * Searches for a book by title in the Gutendex API and saves it to the
      * database.
-     * If the book already exists, returns the existing book.
-     * If the author doesn't exist, creates a new author record.
+     * If the book already exists (same Gutenberg id), returns the existing book.
+     * Authors that don't exist yet are created; all of them are linked to the
+     * book, along with all its languages.
      * 
      * @param title The title of the book to search for
      * @return The saved Book entity
-     * @throws RuntimeException if the book is not found in the API or cannot be
-     *                          saved
+     * @throws BookNotFoundException if the book is not found in the API
+     * @throws RuntimeException      if the API cannot be reached or the book
+     *                               cannot be saved
      */
     public Book searchAndSaveBook(String title) {
-        // Fetch from API
-        GutendexResponseDTO response = gutendexService.fetchBooks(title);
+        // Fetch from API (or from the response cache)
+        GutendexResponseDTO response = gutendexCache.fetchBooks(title);
         if (response.results().isEmpty()) {
-            throw new RuntimeException("Libro no encontrado en la API de Gutendex");
+            throw new BookNotFoundException("Libro no encontrado en la API de Gutendex");
         }
 
         BookDTO bookDTO = response.results().get(0);
 
-        // Check if book already exists
-        Optional<Book> existingBook = bookRepository.findByTitleContainsIgnoreCase(bookDTO.title());
+        // Check if book already exists: one lookup on the unique gutenberg_id index
+        Optional<Book> existingBook = findByGutenbergId(bookDTO.id());
         if (existingBook.isPresent()) {
             return existingBook.get();
         }
 
-        // Handle author (find or create)
-        Author author = null;
-        if (!bookDTO.authors().isEmpty()) {
-            AuthorDTO authorDTO = bookDTO.authors().get(0);
-
-            Optional<Author> existingAuthor = authorRepository.findByName(authorDTO.name());
-            if (existingAuthor.isPresent()) {
-                author = existingAuthor.get();
-            } else {
-                author = new Author(authorDTO.name(), authorDTO.birthYear(), authorDTO.deathYear());
-                author = authorRepository.saveAndFlush(author);
-            }
-        }
-
-        // Create and save book
-        String language = bookDTO.languages().isEmpty() ? "unknown" : bookDTO.languages().get(0);
-        Book book = new Book(bookDTO.title(), author, language, bookDTO.downloadCount());
+        // Create and save book, with its authors (found or created)
+        Book book = toBook(bookDTO, authorResolver.resolve(authorsOf(bookDTO)));
 
         try {
             book = bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            // Stored by a concurrent import since the lookup: the unique index kept a single copy
+            return findByGutenbergId(bookDTO.id())
+                    .orElseThrow(() -> new RuntimeException("Error al guardar el libro: " + e.getMessage(), e));
         } catch (Exception e) {
             throw new RuntimeException("Error al guardar el libro: " + e.getMessage(), e);
         }
 
+        eventPublisher.publishEvent(new BooksSavedEvent(List.of(book)));
         return book;
     }
 
+    private Optional<Book> findByGutenbergId(Long gutenbergId) {
+        return gutenbergId == null ? Optional.empty() : bookRepository.findByGutenbergId(gutenbergId);
+    }
+
+    /**
+     * Imports the titles listed in a text or CSV file, see
+     * {@link #importTitles(List)}.
+     *
+     * @param file One title per line, or a CSV whose first column is the title
+     * @return Counters of the import
+     * @throws RuntimeException if the file cannot be read
+     */
+    public TitleImportReport importTitlesFromFile(Path file) {
+        try {
+            return importTitles(TitleFileReader.read(file));
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Imports many titles at once. The Gutendex lookups run concurrently and
+     * the results are saved in chunks of {@value #IMPORT_CHUNK_SIZE}, each in
+     * its own transaction: one IN query for the books already stored and
+     * JDBC-batched inserts for the rest. The authors of a chunk are resolved
+     * just before its transaction by the {@link AuthorResolver}, so concurrent
+     * imports sharing authors do not fail on the unique author names.
+     * A failing chunk is rolled back and reported without stopping the others.
+     * A result without a Gutenberg id cannot be deduplicated, so its title is
+     * reported as not found.
+     *
+     * @param titles Titles to search for; blanks and duplicates are ignored
+     * @return Counters of the import
+     */
+    public TitleImportReport importTitles(List<String> titles) {
+        List<String> distinct = titles.stream()
+                .map(String::trim)
+                .filter(title -> !title.isEmpty())
+                .distinct()
+                .toList();
+
+        Map<String, CompletableFuture<GutendexResponseDTO>> lookups = new LinkedHashMap<>();
+        for (String title : distinct) {
+            lookups.put(title, gutendexCache.fetchBooksAsync(title));
+        }
+
+        List<String> notFound = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        // Keyed on the Gutenberg id: two searches can resolve to the same book
+        Map<Long, BookDTO> found = new LinkedHashMap<>();
+        lookups.forEach((title, lookup) -> {
+            try {
+                GutendexResponseDTO response = lookup.join();
+                if (response.results() == null || response.results().isEmpty()
+                        || response.results().get(0).id() == null) {
+                    notFound.add(title);
+                } else {
+                    BookDTO bookDTO = response.results().get(0);
+                    found.putIfAbsent(bookDTO.id(), bookDTO);
+                }
+            } catch (CompletionException e) {
+                failed.add(title);
+            }
+        });
+
+        int imported = 0;
+        int alreadyStored = 0;
+        List<BookDTO> books = new ArrayList<>(found.values());
+        for (int from = 0; from < books.size(); from += IMPORT_CHUNK_SIZE) {
+            List<BookDTO> chunk = books.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, books.size()));
+            try {
+                Map<String, Author> authors = authorResolver.resolve(
+                        chunk.stream().flatMap(bookDTO -> authorsOf(bookDTO).stream()).toList());
+                List<Book> saved;
+                try {
+                    saved = transactionTemplate.execute(status -> saveChunk(chunk, authors));
+                } catch (DataIntegrityViolationException e) {
+                    // Another import stored some of these books after the lookup; the retry skips them
+                    saved = transactionTemplate.execute(status -> saveChunk(chunk, authors));
+                }
+                imported += saved.size();
+                alreadyStored += chunk.size() - saved.size();
+                eventPublisher.publishEvent(new BooksSavedEvent(saved));
+            } catch (RuntimeException e) {
+                chunk.forEach(bookDTO -> failed.add(bookDTO.title()));
+            }
+        }
+
+        return new TitleImportReport(distinct.size(), imported, alreadyStored, notFound, failed);
+    }
+
+    private List<Book> saveChunk(List<BookDTO> chunk, Map<String, Author> authors) {
+        Set<Long> stored = bookRepository.findStoredGutenbergIds(chunk.stream().map(BookDTO::id).toList());
+
+        List<BookDTO> newBooks = chunk.stream()
+                .filter(bookDTO -> !stored.contains(bookDTO.id()))
+                .toList();
+
+        return bookRepository.saveAll(newBooks.stream().map(bookDTO -> toBook(bookDTO, authors)).toList());
+    }
+
+    private static Book toBook(BookDTO bookDTO, Map<String, Author> authors) {
+        List<Author> bookAuthors = authorsOf(bookDTO).stream()
+                .map(authorDTO -> authors.get(authorDTO.name()))
+                .distinct()
+                .toList();
+        Book book = new Book(bookDTO.id(), bookDTO.title(), bookAuthors.isEmpty() ? null : bookAuthors.get(0),
+                primaryLanguage(bookDTO), bookDTO.downloadCount());
+        book.setAuthors(new ArrayList<>(bookAuthors));
+        book.setLanguages(bookDTO.languages() == null ? new LinkedHashSet<>() : new LinkedHashSet<>(bookDTO.languages()));
+        return book;
+    }
+
+    private static List<AuthorDTO> authorsOf(BookDTO bookDTO) {
+        if (bookDTO.authors() == null) {
+            return List.of();
+        }
+        return bookDTO.authors().stream().filter(authorDTO -> authorDTO.name() != null).toList();
+    }
+
+    private static String primaryLanguage(BookDTO bookDTO) {
+        return bookDTO.languages() == null || bookDTO.languages().isEmpty() ? "unknown" : bookDTO.languages().get(0);
+    }
+
     /**
      * Retrieves all books from the database.
      * 
@@ -88,6 +279,84 @@ public class BookService {
         return bookRepository.findAll();
     }
 
+    /**
+     * Retrieves one page of books ordered by id, using keyset pagination.
+     * Each page is a single query that selects the author name with the book.
+     *
+     * @param position {@code ScrollPosition.keyset()} for the first page, then
+     *                 the position of the last book of the previous window
+     * @return Up to {@value #LISTING_PAGE_SIZE} books and whether more follow
+     */
+    public Window<BookListing> getBooksPage(ScrollPosition position) {
+        Map<String, ?> keys = keysOf(position);
+        long afterId = keys.containsKey("id") ? ((Number) keys.get("id")).longValue() : 0L;
+        // One extra row tells whether another page follows without a count query
+        List<BookListing> rows = bookRepository.findListingsAfter(afterId, Limit.of(LISTING_PAGE_SIZE + 1));
+        return toWindow(rows, book -> Map.of("id", book.id()));
+    }
+
+    /**
+     * Retrieves one page of books with OFFSET pagination, for callers that need
+     * random access to page numbers.
+     *
+     * @param pageable Page number, size and sort
+     * @return The requested page
+     */
+    public Page<Book> getBooks(Pageable pageable) {
+        return bookRepository.findAll(pageable);
+    }
+
+    /**
+     * Streams every book, ordered by id, through {@code action} inside a
+     * read-only transaction. Rows are fetched 500 at a time and the
+     * persistence context is cleared as it goes, so memory use does not grow
+     * with the size of the catalog. {@code action} must not keep the books.
+     *
+     * @param action Called once per book, with its author loaded
+     */
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> action) {
+        try (Stream<Book> books = bookRepository.streamAllByOrderById()) {
+            int streamed = 0;
+            for (Book book : (Iterable<Book>) books::iterator) {
+                action.accept(book);
+                if (++streamed % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves one page of authors ordered by name, using keyset pagination,
+     * see {@link #getBooksPage(ScrollPosition)}.
+     *
+     * @param position {@code ScrollPosition.keyset()} for the first page, then
+     *                 the position of the last author of the previous window
+     * @return Up to {@value #LISTING_PAGE_SIZE} authors and whether more follow
+     */
+    public Window<AuthorSummary> getAuthorsPage(ScrollPosition position) {
+        Map<String, ?> keys = keysOf(position);
+        String afterName = (String) keys.get("name");
+        long afterId = keys.containsKey("id") ? ((Number) keys.get("id")).longValue() : 0L;
+        List<AuthorSummary> rows = authorRepository.findSummariesAfter(afterName, afterId,
+                Limit.of(LISTING_PAGE_SIZE + 1));
+        return toWindow(rows, author -> Map.of("name", author.name(), "id", author.id()));
+    }
+
+    private static Map<String, ?> keysOf(ScrollPosition position) {
+        if (position instanceof KeysetScrollPosition keyset) {
+            return keyset.getKeys();
+        }
+        throw new IllegalArgumentException("Se esperaba una posicion por clave: " + position);
+    }
+
+    private static <T> Window<T> toWindow(List<T> rows, Function<T, Map<String, ?>> keysOf) {
+        boolean hasNext = rows.size() > LISTING_PAGE_SIZE;
+        List<T> page = hasNext ? rows.subList(0, LISTING_PAGE_SIZE) : rows;
+        return Window.from(page, index -> ScrollPosition.forward(keysOf.apply(page.get(index))), hasNext);
+    }
+
     /**
      * Retrieves all authors from the database.
      * 
@@ -98,13 +367,31 @@ public class BookService {
     }
 
     /**
-     * Finds authors who were alive in a specific year.
+     * Finds authors who were alive in a specific year, with one query on the
+     * (birth_year, death_year) index.
      * 
      * @param year The year to check
-     * @return List of authors alive in the specified year
+     * @return List of authors alive in the specified year, by name
+     */
+    public List<AuthorSummary> getAuthorsAliveInYear(int year) {
+        return authorRepository.findSummariesAliveInYear(year);
+    }
+
+    /**
+     * Counts the authors alive in every year of a range, in one pass over the
+     * in-memory {@link AuthorLifespans} index instead of one query per year.
+     *
+     * @param fromYear First year of the range
+     * @param toYear   Last year of the range (inclusive), at most
+     *                 {@link #MAX_TIMELINE_YEARS} years after {@code fromYear}
+     * @return {@code counts[i]} is the number of authors alive in {@code fromYear + i}
      */
-    public List<Author> getAuthorsAliveInYear(int year) {
-        return authorRepository.findAuthorsAliveInYear(year);
+    public int[] getAliveAuthorCounts(int fromYear, int toYear) {
+        if (fromYear > toYear || (long) toYear - fromYear >= MAX_TIMELINE_YEARS) {
+            throw new IllegalArgumentException("El rango debe ir hacia adelante y abarcar como maximo "
+                    + MAX_TIMELINE_YEARS + " anios: " + fromYear + ".." + toYear);
+        }
+        return authorLifespans.aliveCounts(fromYear, toYear);
     }
 
     /**
@@ -113,22 +400,43 @@ public class BookService {
      * @param language The language code (e.g., "es", "en")
      * @return List of books in the specified language
      */
-    public List<Book> getBooksByLanguage(String language) {
-        return bookRepository.findByLanguage(language);
+    public List<BookListing> getBooksByLanguage(String language) {
+        return bookRepository.findListingsByLanguage(language);
     }
 
     // ========== ADVANCED FEATURES ==========
 
     /**
-     * Generates statistical summary of book downloads.
-     * 
-     * @return DoubleSummaryStatistics containing count, sum, min, max, and average
+     * Generates statistics of the catalog with aggregate queries: download
+     * totals and percentiles, and breakdowns per language, per author (top
+     * {@value #STATISTICS_TOP_AUTHORS}) and per century of birth of the
+     * authors. No book is loaded into memory. The queries share one read-only
+     * transaction.
+     *
+     * @return The catalog statistics
      */
-    public java.util.DoubleSummaryStatistics getBookStatistics() {
-        List<Book> books = bookRepository.findAll();
-        return books.stream()
-                .mapToDouble(Book::getDownloads)
-                .summaryStatistics();
+    @Transactional(readOnly = true)
+    public BookStatistics getBookStatistics() {
+        return new BookStatistics(
+                bookRepository.summarizeDownloads(),
+                bookRepository.summarizeByLanguage(),
+                bookRepository.summarizeTopAuthors(Limit.of(STATISTICS_TOP_AUTHORS)),
+                bookRepository.summarizeByCentury());
+    }
+
+    /**
+     * @return Counters of the Gutendex response cache
+     */
+    public CacheStats getGutendexCacheStats() {
+        return gutendexCache.stats();
+    }
+
+    /**
+     * @return Counters of each region of the Hibernate second-level and query
+     *         cache
+     */
+    public List<CacheRegionStats> getDatabaseCacheStats() {
+        return secondLevelCache.stats();
     }
 
     /**
@@ -136,8 +444,36 @@ public class BookService {
      * 
      * @return List of up to 10 books ordered by download count (descending)
      */
-    public List<Book> getTop10MostDownloaded() {
-        return bookRepository.findTop10ByOrderByDownloadsDesc();
+    public List<BookListing> getTop10MostDownloaded() {
+        return getMostDownloaded(null, 10);
+    }
+
+    /**
+     * Retrieves one page of the download ranking of the whole catalog, from
+     * the in-memory {@link Leaderboards} when it holds that range.
+     *
+     * @param after Last book of the previous page, or {@code null} for the first page
+     * @param limit Maximum number of books to return
+     * @return Books ordered by download count (descending)
+     */
+    public List<BookListing> getMostDownloaded(BookListing after, int limit) {
+        return leaderboards.top(after, limit);
+    }
+
+    /**
+     * Retrieves one page of the download ranking of the books in a language,
+     * see {@link #getMostDownloaded(BookListing, int)}.
+     */
+    public List<BookListing> getMostDownloadedByLanguage(String language, BookListing after, int limit) {
+        return leaderboards.topByLanguage(language, after, limit);
+    }
+
+    /**
+     * Retrieves one page of the download ranking of the books of an author,
+     * see {@link #getMostDownloaded(BookListing, int)}.
+     */
+    public List<BookListing> getMostDownloadedByAuthor(long authorId, BookListing after, int limit) {
+        return leaderboards.topByAuthor(authorId, after, limit);
     }
 
     /**
@@ -150,6 +486,82 @@ public class BookService {
         return authorRepository.findByNameContainsIgnoreCase(name);
     }
 
+    /**
+     * Searches stored book titles in the in-memory {@link CatalogIndex}:
+     * every word must match, accents and case ignored, the last word may be
+     * incomplete. Only the matching rows are read from the database, by id,
+     * in one query.
+     *
+     * @param text  Words to look for in the title
+     * @param limit Maximum number of books to return
+     * @return Matching books, closest matches first
+     */
+    public List<BookListing> searchLocalBooks(String text, int limit) {
+        return inIndexOrder(catalogIndex.searchBooks(text, limit), bookRepository::findListingsByIdIn,
+                BookListing::id);
+    }
+
+    /**
+     * Searches stored author names in the in-memory {@link CatalogIndex}, see
+     * {@link #searchLocalBooks(String, int)}.
+     *
+     * @param text  Words to look for in the name
+     * @param limit Maximum number of authors to return
+     * @return Matching authors, closest matches first
+     */
+    public List<AuthorSummary> searchLocalAuthors(String text, int limit) {
+        return inIndexOrder(catalogIndex.searchAuthors(text, limit), authorRepository::findSummariesByIdIn,
+                AuthorSummary::id);
+    }
+
+    private static <T> List<T> inIndexOrder(long[] ids, Function<List<Long>, List<T>> loader,
+            Function<T, Long> idOf) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> boxed = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            boxed.add(id);
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : loader.apply(boxed)) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        return boxed.stream().map(byId::get).filter(entity -> entity != null).toList();
+    }
+
+    /**
+     * Ranked search over stored book titles: substring matches plus fuzzy
+     * trigram matches, most similar first. On databases without pg_trgm
+     * (the embedded profile) only substring matches, most downloaded first.
+     *
+     * @param term     Text to look for in the title
+     * @param pageable Page to return
+     * @return One page of matching books
+     */
+    public Page<Book> searchBooks(String term, Pageable pageable) {
+        return trigramSearch
+                ? bookRepository.searchByTitle(term, pageable)
+                : bookRepository.searchByTitleSubstring(term, pageable);
+    }
+
+    /**
+     * Ranked search over stored author names, see
+     * {@link #searchBooks(String, Pageable)}. Substring matches come sorted by
+     * name when trigram search is not available.
+     *
+     * @param term     Text to look for in the name
+     * @param pageable Page to return
+     * @return One page of matching authors
+     */
+    public Page<AuthorSummary> searchAuthors(String term, Pageable pageable) {
+        Page<Author> authors = trigramSearch
+                ? authorRepository.searchByName(term, pageable)
+                : authorRepository.searchByNameSubstring(term, pageable);
+        return authors.map(author -> new AuthorSummary(author.getId(), author.getName(), author.getBirthYear(),
+                author.getDeathYear()));
+    }
+
     /**
      * Finds authors born within a specific year range.
      * 
@@ -157,7 +569,7 @@ public class BookService {
      * @param endYear   The end year of the range (inclusive)
      * @return List of authors born between the specified years
      */
-    public List<Author> getAuthorsByBirthYearRange(Integer startYear, Integer endYear) {
-        return authorRepository.findByBirthYearBetween(startYear, endYear);
+    public List<AuthorSummary> getAuthorsByBirthYearRange(Integer startYear, Integer endYear) {
+        return authorRepository.findSummariesByBirthYearBetween(startYear, endYear);
     }
 }
@@ -0,0 +1,89 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.ExportReport;
+import com.alura.literalura.repository.BookRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Exports the whole catalog to a file with a {@link BookListingExporter}.
+ * Books are read in id order, {@value #BATCH_SIZE} rows per keyset query, so
+ * memory use stays flat whatever the size of the catalog.
+ */
+@Service
+public class CatalogExportService {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+
+    public CatalogExportService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Writes every book to {@code file}, replacing it, as CSV or JSON Lines
+     * depending on its extension.
+     *
+     * @param file Destination ending in {@code .csv}, {@code .jsonl} or
+     *             {@code .ndjson}
+     * @return Rows written and throughput
+     * @throws RuntimeException if the extension is not supported or the file
+     *                          cannot be written
+     */
+    public ExportReport exportBooks(Path file) {
+        long start = System.nanoTime();
+        long rows;
+        try (BookListingExporter exporter = BookListingExporter.open(file)) {
+            rows = writeCatalog(exporter);
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Error al escribir " + file + ": " + e.getMessage(), e);
+        }
+        return new ExportReport(file, rows, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Writes every book to a stream, such as the standard output of a
+     * command, which is flushed but left open.
+     *
+     * @param out    Destination
+     * @param format Row format
+     * @return Rows written
+     * @throws RuntimeException if the stream cannot be written
+     */
+    public long exportBooks(OutputStream out, BookListingExporter.Format format) {
+        BookListingExporter exporter = new BookListingExporter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BookListingExporter.BUFFER_SIZE), format);
+        try {
+            long rows = writeCatalog(exporter);
+            exporter.flush();
+            return rows;
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Error al escribir la exportacion: " + e.getMessage(), e);
+        }
+    }
+
+    private long writeCatalog(BookListingExporter exporter) {
+        long afterId = 0;
+        List<BookListing> batch;
+        do {
+            batch = bookRepository.findListingsAfter(afterId, Limit.of(BATCH_SIZE));
+            batch.forEach(exporter::write);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).id();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return exporter.rows();
+    }
+}
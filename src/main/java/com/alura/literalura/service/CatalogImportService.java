@@ -0,0 +1,180 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.dto.ImportReport;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.repository.CatalogWriter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mirrors the whole Gutendex catalog by walking the paginated {@code /books/}
+ * endpoint.
+ * <p>
+ * The import runs as a three stage pipeline connected by bounded queues: one
+ * thread follows the {@code next} links and downloads raw pages, a pool of
+ * decoders turns them into {@link BookDTO}s and the calling thread writes them
+ * in batches through the {@link CatalogWriter}. The queues keep at most a few
+ * pages in memory, so a slow database throttles the downloads instead of
+ * filling the heap.
+ * <p>
+ * The writer bypasses JPA, so a {@link CatalogChangedEvent} is published once
+ * the run ends, whether it succeeded or not.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final int QUEUE_CAPACITY = 8;
+    private static final int DEFAULT_DECODERS = 2;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final byte[] END_OF_PAGES = new byte[0];
+    private static final List<BookDTO> END_OF_BOOKS = List.of();
+
+    private final GutendexService gutendexService;
+    private final CatalogWriter catalogWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogImportService(GutendexService gutendexService, CatalogWriter catalogWriter,
+            ApplicationEventPublisher eventPublisher) {
+        this.gutendexService = gutendexService;
+        this.catalogWriter = catalogWriter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Imports the full catalog starting at the first page of the API.
+     *
+     * @return Counters and throughput of the run
+     */
+    public ImportReport importCatalog() {
+        return importCatalog(gutendexService.getBaseUrl(), DEFAULT_DECODERS, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Imports every page reachable from {@code startUrl}.
+     *
+     * @param startUrl  URL of the first page to fetch
+     * @param decoders  Number of decoding threads
+     * @param batchSize Number of books per JDBC batch
+     * @return Counters and throughput of the run
+     * @throws RuntimeException if any stage fails; the other stages are stopped
+     */
+    public ImportReport importCatalog(String startUrl, int decoders, int batchSize) {
+        if (decoders < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("decoders and batchSize must be positive");
+        }
+
+        BlockingQueue<byte[]> pages = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<List<BookDTO>> books = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger runningDecoders = new AtomicInteger(decoders);
+        AtomicLong pagesFetched = new AtomicLong();
+        AtomicLong booksRead = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(decoders + 1, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        long inserted = 0;
+        try {
+            executor.execute(() -> {
+                try {
+                    String url = startUrl;
+                    while (url != null) {
+                        byte[] body = gutendexService.fetchPage(url);
+                        pages.put(body);
+                        pagesFetched.incrementAndGet();
+                        url = gutendexService.nextPageUrl(body);
+                    }
+                    for (int i = 0; i < decoders; i++) {
+                        pages.put(END_OF_PAGES);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    fail(failure, executor, e);
+                }
+            });
+
+            for (int i = 0; i < decoders; i++) {
+                executor.execute(() -> {
+                    try {
+                        byte[] body;
+                        while ((body = pages.take()) != END_OF_PAGES) {
+                            GutendexResponseDTO page = gutendexService.parsePage(body);
+                            if (page.results() != null && !page.results().isEmpty()) {
+                                booksRead.addAndGet(page.results().size());
+                                books.put(page.results());
+                            }
+                        }
+                        if (runningDecoders.decrementAndGet() == 0) {
+                            books.put(END_OF_BOOKS);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        fail(failure, executor, e);
+                    }
+                });
+            }
+
+            List<BookDTO> batch = new ArrayList<>(batchSize);
+            while (failure.get() == null) {
+                List<BookDTO> page = books.poll(100, TimeUnit.MILLISECONDS);
+                if (page == null) {
+                    continue;
+                }
+                if (page == END_OF_BOOKS) {
+                    break;
+                }
+                batch.addAll(page);
+                if (batch.size() >= batchSize) {
+                    inserted += catalogWriter.write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (failure.get() == null && !batch.isEmpty()) {
+                inserted += catalogWriter.write(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importacion del catalogo interrumpida", e);
+        } catch (RuntimeException e) {
+            fail(failure, executor, e);
+        } finally {
+            executor.shutdownNow();
+            eventPublisher.publishEvent(new CatalogChangedEvent());
+        }
+
+        if (failure.get() != null) {
+            throw new RuntimeException("Error en la importacion del catalogo: " + failure.get().getMessage(),
+                    failure.get());
+        }
+
+        return new ImportReport(pagesFetched.get(), booksRead.get(), inserted,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static void fail(AtomicReference<Throwable> failure, ExecutorService executor, Throwable error) {
+        if (failure.compareAndSet(null, error)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.DownloadRefreshProperties;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.DownloadSnapshot;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.dto.RefreshReport;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import com.alura.literalura.repository.BookRepository;
+import com.alura.literalura.repository.JdbcDownloadWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the stored download counts in line with Gutendex.
+ * <p>
+ * A run walks the books that have a Gutenberg id in id order, asks Gutendex
+ * for a batch of them at a time ({@code ?ids=}), and writes only the counts
+ * that changed, as one batch of UPDATEs per request. Requests are spaced to
+ * stay under {@code downloads.refresh.requests-per-second}.
+ * <p>
+ * Runs are scheduled every {@code downloads.refresh.interval} on a single
+ * background thread and can also be started by hand. {@link #pause()} stops a
+ * run after the batch in progress; the position is kept, so the next run after
+ * {@link #resume()} continues from there instead of starting over.
+ */
+@Service
+public class DownloadRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(DownloadRefreshService.class);
+
+    private final GutendexService gutendexService;
+    private final BookRepository bookRepository;
+    private final JdbcDownloadWriter downloadWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DownloadRefreshProperties properties;
+    private final long requestIntervalNanos;
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+    // Held for the whole of a run, so runs never overlap
+    private final ReentrantLock running = new ReentrantLock();
+    // Id of the last book checked by an unfinished run; 0 when the next run starts from the beginning
+    private volatile long cursor;
+    private volatile RefreshReport lastReport;
+    private long nextRequestAt;
+    private ScheduledExecutorService scheduler;
+
+    public DownloadRefreshService(GutendexService gutendexService, BookRepository bookRepository,
+            JdbcDownloadWriter downloadWriter, ApplicationEventPublisher eventPublisher,
+            DownloadRefreshProperties properties) {
+        this.gutendexService = gutendexService;
+        this.bookRepository = bookRepository;
+        this.downloadWriter = downloadWriter;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.requestIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.requestsPerSecond());
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "download-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.enabled()) {
+            scheduler.scheduleWithFixedDelay(this::scheduledRun, properties.initialDelay().toMillis(),
+                    properties.interval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts a run on the background thread without waiting for it.
+     */
+    public void refreshInBackground() {
+        scheduler.execute(this::scheduledRun);
+    }
+
+    /**
+     * Runs the refresh on the calling thread until the end of the catalog or
+     * until paused. Does nothing if another run is in progress or the
+     * refresher is paused.
+     *
+     * @return What the run did
+     * @throws RuntimeException if a Gutendex request fails; the failed batch
+     *                          is retried by the next run
+     */
+    public RefreshReport refresh() {
+        if (!running.tryLock()) {
+            return new RefreshReport(0, 0, 0, false);
+        }
+        try {
+            int requests = 0;
+            long checked = 0;
+            long updated = 0;
+            while (!paused.get()) {
+                List<DownloadSnapshot> batch = bookRepository.findDownloadSnapshots(cursor,
+                        Limit.of(properties.batchSize()));
+                if (batch.isEmpty()) {
+                    cursor = 0;
+                    lastReport = new RefreshReport(requests, checked, updated, true);
+                    return lastReport;
+                }
+
+                pace();
+                GutendexResponseDTO response = gutendexService.fetchByIds(
+                        batch.stream().map(DownloadSnapshot::gutenbergId).toList());
+                requests++;
+
+                Map<Long, Double> current = new HashMap<>();
+                if (response.results() != null) {
+                    for (BookDTO book : response.results()) {
+                        current.put(book.id(), book.downloadCount());
+                    }
+                }
+                Map<Long, Double> changed = new LinkedHashMap<>();
+                for (DownloadSnapshot book : batch) {
+                    Double downloads = current.get(book.gutenbergId());
+                    if (downloads != null && !Objects.equals(downloads, book.downloads())) {
+                        changed.put(book.id(), downloads);
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    updated += downloadWriter.updateDownloads(changed);
+                    eventPublisher.publishEvent(new DownloadsRefreshedEvent(changed));
+                }
+
+                checked += batch.size();
+                cursor = batch.get(batch.size() - 1).id();
+            }
+            RefreshReport report = new RefreshReport(requests, checked, updated, false);
+            if (requests > 0) {
+                lastReport = report;
+            }
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Stops the run in progress after its current batch and keeps later runs
+     * from starting until {@link #resume()}.
+     */
+    public void pause() {
+        paused.set(true);
+    }
+
+    /**
+     * Allows runs again. The next one continues where the paused run stopped.
+     */
+    public void resume() {
+        paused.set(false);
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    public boolean isRunning() {
+        return running.isLocked();
+    }
+
+    /**
+     * @return The report of the last run that ended, or {@code null} if none has
+     */
+    public RefreshReport getLastReport() {
+        return lastReport;
+    }
+
+    private void scheduledRun() {
+        try {
+            RefreshReport report = refresh();
+            log.debug("Download refresh: {} request(s), {} book(s) checked, {} updated{}", report.requests(),
+                    report.booksChecked(), report.booksUpdated(), report.completed() ? "" : " (paused)");
+        } catch (RuntimeException e) {
+            log.warn("Download refresh stopped: {}", e.getMessage());
+        }
+    }
+
+    // Only called with the running lock held
+    private void pace() {
+        long wait = nextRequestAt - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Actualizacion de descargas interrumpida", e);
+            }
+        }
+        nextRequestAt = System.nanoTime() + requestIntervalNanos;
+    }
+}
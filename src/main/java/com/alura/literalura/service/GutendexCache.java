@@ -0,0 +1,274 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.GutendexCacheProperties;
+import com.alura.literalura.dto.CacheStats;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache in front of {@link GutendexService#fetchBooks(String)}.
+ * <p>
+ * Entries are keyed on the normalized search term (trimmed, lower case,
+ * single spaces), expire after {@code gutendex.cache.ttl} and are evicted in
+ * LRU order beyond {@code gutendex.cache.max-entries}. Concurrent misses for
+ * the same term are coalesced: one caller fetches, the others wait for its
+ * result, so a burst of identical searches costs a single HTTP request.
+ * <p>
+ * The counters of {@link #stats()} are also published as the standard
+ * {@code cache.*} meters, tagged {@code cache=gutendex}.
+ */
+@Component
+public class GutendexCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(GutendexCache.class);
+
+    private final GutendexService gutendexService;
+    private final GutendexCacheProperties properties;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Access-ordered, so iteration starts at the least recently used entry. Guarded by itself.
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, CompletableFuture<GutendexResponseDTO>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Autowired
+    public GutendexCache(GutendexService gutendexService, GutendexCacheProperties properties) {
+        this(gutendexService, properties, Clock.systemUTC());
+    }
+
+    public GutendexCache(GutendexService gutendexService, GutendexCacheProperties properties, Clock clock) {
+        this.gutendexService = gutendexService;
+        this.properties = properties;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > properties.maxEntries()) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for {@code title}, fetching it from the API
+     * on a miss.
+     *
+     * @param title The title to search for
+     * @return The Gutendex response for the normalized title
+     * @throws RuntimeException if the response is not cached and the API call fails
+     */
+    public GutendexResponseDTO fetchBooks(String title) {
+        String key = normalize(title);
+
+        GutendexResponseDTO cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<GutendexResponseDTO> load = new CompletableFuture<>();
+        CompletableFuture<GutendexResponseDTO> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalesced.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // The previous load may have finished between our lookup and putIfAbsent
+            GutendexResponseDTO response = lookup(key);
+            if (response == null) {
+                response = gutendexService.fetchBooks(key);
+                store(key, response, clock.millis() + properties.ttl().toMillis());
+            }
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #fetchBooks(String)}, run on the
+     * Gutendex client executor.
+     */
+    public CompletableFuture<GutendexResponseDTO> fetchBooksAsync(String title) {
+        return CompletableFuture.supplyAsync(() -> fetchBooks(title), gutendexService.executor());
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), coalesced.sum(), size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "gutendex", "result", "hit")
+                .description("Lookups answered from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "gutendex", "result", "miss")
+                .description("Lookups that had to call the API")
+                .register(registry);
+        FunctionCounter.builder("cache.gets.coalesced", coalesced, LongAdder::sum)
+                .tags("cache", "gutendex")
+                .description("Misses that waited for a call already in flight")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", "gutendex")
+                .description("Entries dropped to respect the size bound")
+                .register(registry);
+        FunctionCounter.builder("cache.expirations", expirations, LongAdder::sum)
+                .tags("cache", "gutendex")
+                .description("Entries dropped because their TTL elapsed")
+                .register(registry);
+        Gauge.builder("cache.size", this, cache -> cache.stats().size())
+                .tags("cache", "gutendex")
+                .description("Entries currently cached")
+                .register(registry);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Loads the entries saved by a previous run, skipping the expired ones.
+     * Does nothing when persistence is disabled or the file does not exist.
+     */
+    @PostConstruct
+    public void load() {
+        Path file = persistFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            List<PersistedEntry> saved = objectMapper.readValue(file.toFile(), new TypeReference<>() {
+            });
+            long now = clock.millis();
+            for (PersistedEntry entry : saved) {
+                if (entry.expiresAt() > now) {
+                    store(entry.key(), entry.response(), entry.expiresAt());
+                }
+            }
+        } catch (IOException e) {
+            // A corrupt or outdated file only costs a cold start
+            log.warn("Could not read Gutendex cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the live entries to the persist file, replacing it atomically.
+     * Does nothing when persistence is disabled.
+     */
+    @PreDestroy
+    public void save() {
+        Path file = persistFile();
+        if (file == null) {
+            return;
+        }
+        List<PersistedEntry> snapshot = new ArrayList<>();
+        long now = clock.millis();
+        synchronized (entries) {
+            entries.forEach((key, entry) -> {
+                if (entry.expiresAt() > now) {
+                    snapshot.add(new PersistedEntry(key, entry.expiresAt(), entry.response()));
+                }
+            });
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write Gutendex cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    static String normalize(String title) {
+        return title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private GutendexResponseDTO lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= clock.millis()) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.response();
+        }
+    }
+
+    private void store(String key, GutendexResponseDTO response, long expiresAt) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, expiresAt));
+        }
+    }
+
+    private Path persistFile() {
+        return properties.persistFile() == null || properties.persistFile().isBlank()
+                ? null
+                : Path.of(properties.persistFile());
+    }
+
+    private record Entry(GutendexResponseDTO response, long expiresAt) {
+    }
+
+    private record PersistedEntry(String key, long expiresAt, GutendexResponseDTO response) {
+    }
+}
@@ -1,41 +1,450 @@
 package com.alura.literalura.service;
 
+import com.alura.literalura.config.GutendexProperties;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexPageInfo;
 import com.alura.literalura.dto.GutendexResponseDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * Client of the Gutendex API.
+ * <p>
+ * Every call is timed in two phases on the {@code gutendex.client} timer:
+ * {@code phase=network} from the request to the last byte of the body (retries
+ * and backoff included; for streamed pages, up to the response headers) and
+ * {@code phase=decode} for the JSON binding. Failed calls are counted on
+ * {@code gutendex.client.errors}, tagged with the HTTP status or the kind of
+ * failure, and retried attempts on {@code gutendex.client.retries}.
+ */
 @Service
 public class GutendexService {
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
-    private static final String BASE_URL = "https://gutendex.com/books/";
+    private final String baseUrl;
+    private final GutendexProperties properties;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final MeterRegistry meterRegistry;
+    private final Timer networkTimer;
+    private final Timer decodeTimer;
 
     public GutendexService() {
-        this.httpClient = HttpClient.newHttpClient();
+        this(GutendexProperties.defaults());
+    }
+
+    public GutendexService(String baseUrl) {
+        this(GutendexProperties.defaults().withBaseUrl(baseUrl));
+    }
+
+    public GutendexService(GutendexProperties properties) {
+        this(properties, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public GutendexService(GutendexProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = newExecutor(properties);
+        this.inFlight = new Semaphore(properties.maxConcurrency());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
         this.objectMapper = new ObjectMapper(); // Manual instantiation
+        this.baseUrl = properties.baseUrl();
+        this.meterRegistry = meterRegistry;
+        this.networkTimer = phaseTimer(meterRegistry, "network");
+        this.decodeTimer = phaseTimer(meterRegistry, "decode");
+    }
+
+    // Shared with GutendexCache so cached async lookups respect the same thread policy
+    ExecutorService executor() {
+        return executor;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
     }
 
     public GutendexResponseDTO fetchBooks(String title) {
-        String encodedTitle = title.replace(" ", "%20");
-        String url = BASE_URL + "?search=" + encodedTitle;
+        String url = searchUrl(title);
+
+        HttpResponse<byte[]> response;
+        try {
+            response = send(url, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Error fetching books from Gutendex API", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching books from Gutendex API", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("Gutendex API returned status " + response.statusCode() + " for " + url);
+        }
+        return parsePage(response.body());
+    }
+
+    /**
+     * Fetches the books with the given Gutenberg ids in one request. Gutendex
+     * pages its answers, so only the first 32 ids of a call are guaranteed to
+     * come back.
+     *
+     * @param ids Gutenberg ids (not database ids)
+     * @return The books found; ids that do not exist are simply missing
+     * @throws RuntimeException if the request fails or the API answers with a
+     *                          non-200 status
+     */
+    public GutendexResponseDTO fetchByIds(Collection<Long> ids) {
+        String url = baseUrl + "?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return parsePage(fetchPage(url));
+    }
+
+    /**
+     * Asynchronous variant of {@link #fetchBooks(String)}. The request runs on
+     * the client executor (virtual threads on Java 21+) and shares the
+     * concurrency limit and retry policy of the blocking calls.
+     *
+     * @param title The title to search for
+     * @return A future completed with the response, or exceptionally with the
+     *         same RuntimeException the blocking call would throw
+     */
+    public CompletableFuture<GutendexResponseDTO> fetchBooksAsync(String title) {
+        return CompletableFuture.supplyAsync(() -> fetchBooks(title), executor);
+    }
+
+    /**
+     * Resolves many titles in parallel, at most {@code gutendex.max-concurrency}
+     * requests at a time. Duplicate titles are fetched once.
+     *
+     * @param titles Titles to search for
+     * @return Responses keyed by title, in the iteration order of {@code titles}
+     * @throws RuntimeException if any of the titles could not be fetched
+     */
+    public Map<String, GutendexResponseDTO> fetchAll(Collection<String> titles) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(titles));
+        List<CompletableFuture<GutendexResponseDTO>> futures = distinct.stream()
+                .map(this::fetchBooksAsync)
+                .toList();
+
+        Map<String, GutendexResponseDTO> responses = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            try {
+                responses.put(distinct.get(i), futures.get(i).join());
+            } catch (CompletionException e) {
+                futures.forEach(future -> future.cancel(true));
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new RuntimeException("Error fetching '" + distinct.get(i) + "': " + cause.getMessage(), cause);
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Downloads one page of the paginated catalog without decoding it, so that
+     * fetching and decoding can run on different threads.
+     *
+     * @param url Absolute page URL, e.g. the {@code next} link of the previous page
+     * @return The raw response body
+     * @throws RuntimeException if the request fails or the API answers with a
+     *                          non-200 status
+     */
+    public byte[] fetchPage(String url) {
+        try {
+            HttpResponse<byte[]> response = send(url, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Gutendex API returned status " + response.statusCode() + " for " + url);
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new RuntimeException("Error fetching page from Gutendex API", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching page from Gutendex API", e);
+        }
+    }
+
+    /**
+     * Decodes a page previously downloaded with {@link #fetchPage(String)}.
+     */
+    public GutendexResponseDTO parsePage(byte[] body) {
+        long start = System.nanoTime();
+        try {
+            return objectMapper.readValue(body, GutendexResponseDTO.class);
+        } catch (IOException e) {
+            countError("decode");
+            throw new RuntimeException("Error decoding Gutendex page", e);
+        } finally {
+            decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
+    /**
+     * Reads only the {@code next} link of a raw page. The top-level fields are
+     * scanned token by token and {@code results} is skipped without binding, so
+     * the page walker does not have to wait for a full decode.
+     *
+     * @return The next page URL, or null on the last page
+     */
+    public String nextPageUrl(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("next".equals(field)) {
+                    return value == JsonToken.VALUE_NULL ? null : parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new RuntimeException("Error decoding Gutendex page", e);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #fetchBooks(String)}. The response body is
+     * read straight from the socket and every book is passed to
+     * {@code consumer} as soon as it is decoded, so neither the body nor the
+     * full result list is ever held in memory.
+     *
+     * @param title    The title to search for
+     * @param consumer Receives each book of the first result page, in order
+     * @return The paging header of the response
+     */
+    public GutendexPageInfo streamBooks(String title, Consumer<BookDTO> consumer) {
+        return streamPage(searchUrl(title), consumer);
+    }
+
+    // Titles may contain &, #, %, quotes or other characters that are not valid in a query string
+    private String searchUrl(String title) {
+        return baseUrl + "?search=" + URLEncoder.encode(title, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams one page of the catalog, see {@link #streamBooks(String, Consumer)}.
+     *
+     * @param url Absolute page URL
+     * @throws RuntimeException if the request fails or the API answers with a
+     *                          non-200 status
+     */
+    public GutendexPageInfo streamPage(String url, Consumer<BookDTO> consumer) {
+        try {
+            HttpResponse<InputStream> response = send(url, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new RuntimeException("Gutendex API returned status " + response.statusCode() + " for " + url);
+                }
+                long start = System.nanoTime();
+                try {
+                    return readPage(body, consumer);
+                } finally {
+                    decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error fetching page from Gutendex API", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching page from Gutendex API", e);
+        }
+    }
+
+    /**
+     * Decodes a Gutendex page from a stream with a {@link JsonParser}, binding
+     * one {@link BookDTO} at a time. Only the paging header is kept.
+     *
+     * @param body     The page JSON; closed once the page has been read
+     * @param consumer Receives each book, in order
+     * @return The paging header of the page
+     */
+    public GutendexPageInfo readPage(InputStream body, Consumer<BookDTO> consumer) {
+        Integer count = null;
+        String next = null;
+        String previous = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Unexpected Gutendex response: expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "count" -> count = value == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    case "next" -> next = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "previous" -> previous = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "results" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                consumer.accept(objectMapper.readValue(parser, BookDTO.class));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            countError("decode");
+            throw new RuntimeException("Error decoding Gutendex page", e);
+        }
+
+        return new GutendexPageInfo(count, next, previous);
+    }
+
+    /**
+     * Sends a GET request within the concurrency limit, retrying with
+     * exponential backoff on 429, 5xx and I/O errors. A {@code Retry-After}
+     * header, when present, overrides the computed delay. Bodies of answers
+     * that will be retried are discarded without being buffered.
+     *
+     * @return The first non-retryable response, or the last one once the
+     *         retries are exhausted
+     */
+    private <T> HttpResponse<T> send(String url, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<T> response = sendWithRetries(url, bodyHandler);
+            if (response.statusCode() != 200) {
+                countError(String.valueOf(response.statusCode()));
+            }
+            return response;
+        } catch (IOException e) {
+            countError("io");
+            throw e;
+        } catch (InterruptedException e) {
+            countError("interrupted");
+            throw e;
+        } finally {
+            networkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> HttpResponse<T> sendWithRetries(String url, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(properties.requestTimeout())
                 .GET()
                 .build();
+        HttpResponse.BodyHandler<T> handler = info -> isRetryable(info.statusCode())
+                ? HttpResponse.BodySubscribers.replacing(null)
+                : bodyHandler.apply(info);
 
-        try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            return objectMapper.readValue(response.body(), GutendexResponseDTO.class);
-        } catch (IOException | InterruptedException e) {
-            throw new RuntimeException("Error fetching books from Gutendex API", e);
+        Duration backoff = properties.initialBackoff();
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<T> response;
+            inFlight.acquire();
+            try {
+                response = httpClient.send(request, handler);
+            } catch (IOException e) {
+                if (attempt >= properties.maxRetries()) {
+                    throw e;
+                }
+                response = null;
+            } finally {
+                inFlight.release();
+            }
+
+            if (response != null && (!isRetryable(response.statusCode()) || attempt >= properties.maxRetries())) {
+                return response;
+            }
+
+            Optional<Duration> requested = response == null ? Optional.empty() : retryAfter(response);
+            if (requested.isPresent() && requested.get().compareTo(properties.requestTimeout()) > 0) {
+                // Waiting longer than a request may take would block the caller; report the answer now
+                return response;
+            }
+            meterRegistry.counter("gutendex.client.retries").increment();
+            Duration delay = requested.orElse(backoff);
+            Thread.sleep(Math.min(delay.toMillis(), properties.requestTimeout().toMillis()));
+            backoff = backoff.multipliedBy(2);
+        }
+    }
+
+    // Errors are rare, so their counters are looked up on demand rather than kept per tag
+    private void countError(String error) {
+        meterRegistry.counter("gutendex.client.errors", "error", error).increment();
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("gutendex.client")
+                .description("Gutendex API calls, by phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    private static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static ExecutorService newExecutor(GutendexProperties properties) {
+        if (properties.virtualThreads()) {
+            try {
+                // Executors.newVirtualThreadPerTaskExecutor() only exists on Java 21+
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Older JVM: fall back to platform threads below
+            }
         }
+        return Executors.newFixedThreadPool(properties.maxConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "gutendex-client");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -0,0 +1,80 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.LatencySummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reads the latency timers of the application back from the meter registry:
+ * Gutendex calls ({@code gutendex.client}), repository methods
+ * ({@code spring.data.repository.invocations}, recorded by Spring Data) and
+ * {@link BookService} methods ({@code book.service}, recorded by
+ * {@code @Timed}).
+ */
+@Service
+public class LatencyReportService {
+
+    private final MeterRegistry meterRegistry;
+
+    public LatencyReportService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return One summary per operation called at least once, grouped as
+     *         Gutendex, repository and service, slowest mean first within each
+     *         group. Failed repository and service calls are left out.
+     */
+    public List<LatencySummary> summaries() {
+        List<LatencySummary> summaries = new ArrayList<>();
+        collect(summaries, "gutendex", "gutendex.client",
+                timer -> true,
+                timer -> timer.getId().getTag("phase"));
+        collect(summaries, "repository", "spring.data.repository.invocations",
+                timer -> "SUCCESS".equals(timer.getId().getTag("state")),
+                timer -> timer.getId().getTag("repository") + "." + timer.getId().getTag("method"));
+        collect(summaries, "service", "book.service",
+                timer -> "none".equals(timer.getId().getTag("exception")),
+                timer -> simpleName(timer.getId().getTag("class")) + "." + timer.getId().getTag("method"));
+        return summaries;
+    }
+
+    private void collect(List<LatencySummary> summaries, String group, String meter, Predicate<Timer> filter,
+            Function<Timer, String> operation) {
+        meterRegistry.find(meter).timers().stream()
+                .filter(timer -> timer.count() > 0 && filter.test(timer))
+                .map(timer -> summarize(group, operation.apply(timer), timer))
+                .sorted(Comparator.comparingDouble(LatencySummary::meanMillis).reversed())
+                .forEach(summaries::add);
+    }
+
+    private static LatencySummary summarize(String group, String operation, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        return new LatencySummary(group, operation, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentile(snapshot, 0.5), percentile(snapshot, 0.95),
+                percentile(snapshot, 0.99));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String simpleName(String className) {
+        return className == null ? "?" : className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.alura.literalura.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the titles of a batch import. Plain text files hold one title per
+ * line; for {@code .csv} files the first column is used and an optional
+ * {@code title}/{@code titulo} header is skipped. Blank lines and lines
+ * starting with {@code #} are ignored.
+ */
+final class TitleFileReader {
+
+    private TitleFileReader() {
+    }
+
+    static List<String> read(Path file) throws IOException {
+        boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        List<String> titles = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String title = csv ? firstCsvColumn(line) : line.trim();
+            if (!title.isEmpty() && !title.startsWith("#")) {
+                titles.add(title);
+            }
+        }
+        if (csv && !titles.isEmpty()
+                && (titles.get(0).equalsIgnoreCase("title") || titles.get(0).equalsIgnoreCase("titulo"))) {
+            titles.remove(0);
+        }
+        return titles;
+    }
+
+    private static String firstCsvColumn(String line) {
+        String trimmed = line.trim();
+        if (!trimmed.startsWith("\"")) {
+            int comma = trimmed.indexOf(',');
+            return (comma < 0 ? trimmed : trimmed.substring(0, comma)).trim();
+        }
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 1; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c != '"') {
+                value.append(c);
+            } else if (i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '"') {
+                value.append('"');
+                i++;
+            } else {
+                break;
+            }
+        }
+        return value.toString().trim();
+    }
+}
@@ -0,0 +1,23 @@
+-- Embedded (H2) counterpart of postgresql/V1: the schema the application
+-- started from. The database is always created empty, so there are no
+-- existing ids to move the sequences past.
+
+CREATE SEQUENCE IF NOT EXISTS authors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS authors (
+    id         bigint       NOT NULL PRIMARY KEY,
+    name       varchar(255),
+    birth_year integer,
+    death_year integer,
+    CONSTRAINT authors_name_key UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id        bigint       NOT NULL PRIMARY KEY,
+    title     varchar(255),
+    author_id bigint REFERENCES authors (id),
+    language  varchar(255),
+    downloads double precision,
+    CONSTRAINT books_title_key UNIQUE (title)
+);
@@ -0,0 +1,3 @@
+-- H2 has no trigram indexes: on the embedded profile title and author
+-- searches fall back to plain substring matches (see BookService).
+-- Kept so both migration sets share the same version numbers.
@@ -0,0 +1,2 @@
+-- Project Gutenberg id of each book, see postgresql/V3.
+ALTER TABLE books ADD COLUMN IF NOT EXISTS gutenberg_id bigint;
@@ -0,0 +1,22 @@
+-- The Gutenberg id becomes the natural key of a book, see postgresql/V4.
+-- V1 named the title constraint, so no catalog lookup is needed to drop it,
+-- and the database never holds books from before this version to backfill.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_books_gutenberg_id ON books (gutenberg_id);
+
+ALTER TABLE books DROP CONSTRAINT IF EXISTS books_title_key;
+
+CREATE TABLE IF NOT EXISTS book_authors (
+    book_id   bigint  NOT NULL REFERENCES books (id),
+    author_id bigint  NOT NULL REFERENCES authors (id),
+    position  integer NOT NULL,
+    PRIMARY KEY (book_id, position)
+);
+
+CREATE INDEX IF NOT EXISTS idx_book_authors_author ON book_authors (author_id);
+
+CREATE TABLE IF NOT EXISTS book_languages (
+    book_id  bigint       NOT NULL REFERENCES books (id),
+    language varchar(255) NOT NULL,
+    PRIMARY KEY (book_id, language)
+);
@@ -0,0 +1,12 @@
+-- Indexes for the filters and orderings of the repository queries, see
+-- postgresql/V5. H2 has no partial indexes, so the download refresh keyset
+-- keeps using the primary key; H2 already indexes books.author_id for its
+-- foreign key, but the composite below also serves the per-author rankings.
+
+CREATE INDEX IF NOT EXISTS idx_books_language_downloads ON books (language, downloads DESC NULLS LAST, id);
+
+CREATE INDEX IF NOT EXISTS idx_books_downloads ON books (downloads DESC NULLS LAST, id);
+
+CREATE INDEX IF NOT EXISTS idx_books_author_downloads ON books (author_id, downloads DESC NULLS LAST, id);
+
+CREATE INDEX IF NOT EXISTS idx_authors_birth_death ON authors (birth_year, death_year);
@@ -0,0 +1,25 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Written to be a no-op on databases that already have it.
+
+CREATE SEQUENCE IF NOT EXISTS authors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS books_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS authors (
+    id         bigint       NOT NULL PRIMARY KEY,
+    name       varchar(255) UNIQUE,
+    birth_year integer,
+    death_year integer
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id        bigint       NOT NULL PRIMARY KEY,
+    title     varchar(255) UNIQUE,
+    author_id bigint REFERENCES authors (id),
+    language  varchar(255),
+    downloads double precision
+);
+
+-- Databases created with IDENTITY ids already hold rows: start the sequences
+-- past them so pooled-lo blocks never collide with existing ids.
+SELECT setval('authors_seq', (SELECT coalesce(max(id), 0) + 1 FROM authors), false);
+SELECT setval('books_seq', (SELECT coalesce(max(id), 0) + 1 FROM books), false);
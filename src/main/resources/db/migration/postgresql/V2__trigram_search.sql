@@ -0,0 +1,8 @@
+-- Trigram indexes for substring and fuzzy search on titles and author names.
+-- A GIN trigram index serves ILIKE '%term%' as well as the similarity
+-- operator (%), so neither needs a sequential scan.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_authors_name_trgm ON authors USING gin (name gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Project Gutenberg id of each book, used to refresh download counts with
+-- Gutendex ?ids= queries. Books stored earlier keep a null id.
+ALTER TABLE books ADD COLUMN IF NOT EXISTS gutenberg_id bigint;
@@ -0,0 +1,50 @@
+-- The Gutenberg id becomes the natural key of a book: imports dedupe on it
+-- with one unique index lookup (or ON CONFLICT) instead of matching titles.
+-- Titles are no longer unique, since different books can share one.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_books_gutenberg_id ON books (gutenberg_id);
+
+-- Drop whatever single-column unique constraint covers the title, named
+-- books_title_key by V1 or uk... by Hibernate's ddl-auto.
+DO $$
+DECLARE
+    title_constraint record;
+BEGIN
+    FOR title_constraint IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'books'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'title'
+    LOOP
+        EXECUTE format('ALTER TABLE books DROP CONSTRAINT %I', title_constraint.conname);
+    END LOOP;
+END $$;
+
+-- Every author and language of a book. books.author_id and books.language
+-- keep the first of each, which the listings and rankings read.
+CREATE TABLE IF NOT EXISTS book_authors (
+    book_id   bigint  NOT NULL REFERENCES books (id),
+    author_id bigint  NOT NULL REFERENCES authors (id),
+    position  integer NOT NULL,
+    PRIMARY KEY (book_id, position)
+);
+
+CREATE INDEX IF NOT EXISTS idx_book_authors_author ON book_authors (author_id);
+
+CREATE TABLE IF NOT EXISTS book_languages (
+    book_id  bigint       NOT NULL REFERENCES books (id),
+    language varchar(255) NOT NULL,
+    PRIMARY KEY (book_id, language)
+);
+
+-- Existing books only recorded their first author and language
+INSERT INTO book_authors (book_id, author_id, position)
+SELECT id, author_id, 0 FROM books WHERE author_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO book_languages (book_id, language)
+SELECT id, language FROM books WHERE language IS NOT NULL AND language <> 'unknown'
+ON CONFLICT DO NOTHING;
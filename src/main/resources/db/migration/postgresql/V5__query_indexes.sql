@@ -0,0 +1,22 @@
+-- Indexes for the filters and orderings of the repository queries. Until now
+-- only the unique keys were indexed, so all of these scanned the whole table.
+-- Rankings sort by downloads DESC NULLS LAST, id: the indexes store that order.
+
+-- Books by language (findByLanguage, listings) and the per-language rankings
+CREATE INDEX IF NOT EXISTS idx_books_language_downloads ON books (language, downloads DESC NULLS LAST, id);
+
+-- Top 10 and the global ranking read the first entries of this index
+CREATE INDEX IF NOT EXISTS idx_books_downloads ON books (downloads DESC NULLS LAST, id);
+
+-- Books of an author and per-author rankings; PostgreSQL does not index
+-- foreign keys by itself
+CREATE INDEX IF NOT EXISTS idx_books_author_downloads ON books (author_id, downloads DESC NULLS LAST, id);
+
+-- Authors alive in a year (range on birth_year, death_year checked in the
+-- index) and authors by birth year range
+CREATE INDEX IF NOT EXISTS idx_authors_birth_death ON authors (birth_year, death_year);
+
+-- Download refresh batches: a keyset walk over the books that have a
+-- Gutenberg id, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_books_refreshable ON books (id) INCLUDE (gutenberg_id, downloads)
+    WHERE gutenberg_id IS NOT NULL;
@@ -0,0 +1,148 @@
+package com.alura.literalura;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the built application as a separate process in command mode, on the
+ * embedded profile and against a stub of Gutendex, so what only breaks in
+ * the native image (a missing reflection or resource hint) fails here:
+ * {@code mvn -Pnative verify}. The program comes from the
+ * {@code literalura.launcher} system property, a command line such as
+ * {@code target/literalura} or {@code java -jar target/literalura-0.0.1-SNAPSHOT.jar};
+ * without it the tests are skipped.
+ * <p>
+ * {@link #statsOnPostgresql()} also needs a PostgreSQL database, given by
+ * {@code literalura.it.jdbc.url}, {@code .user} and {@code .password}.
+ */
+class NativeApplicationIT {
+
+    private static final String DRACULA = """
+            {"count":1,"next":null,"previous":null,"results":[{"id":345,"title":"Dracula",\
+            "authors":[{"name":"Stoker, Bram","birth_year":1847,"death_year":1912}],\
+            "subjects":["Horror tales"],"languages":["en"],"download_count":98765}]}""";
+
+    @TempDir
+    Path dataDir;
+
+    private HttpServer gutendex;
+    private List<String> launcher;
+
+    @BeforeEach
+    void startGutendexStub() throws IOException {
+        String command = System.getProperty("literalura.launcher", "");
+        assumeTrue(!command.isBlank(), "literalura.launcher is not set");
+        launcher = Arrays.asList(command.trim().split("\\s+"));
+
+        gutendex = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        gutendex.createContext("/books/", exchange -> {
+            byte[] body = DRACULA.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        gutendex.start();
+    }
+
+    @AfterEach
+    void stopGutendexStub() {
+        if (gutendex != null) {
+            gutendex.stop(0);
+        }
+    }
+
+    @Test
+    void exitsWithTheStatusOfTheCommand() throws Exception {
+        Result help = run("help");
+        assertThat(help.status()).isZero();
+        assertThat(help.out()).startsWith("Uso: literalura");
+
+        Result unknown = run("frobnicate");
+        assertThat(unknown.status()).isEqualTo(2);
+        assertThat(unknown.err()).contains("Comando desconocido: frobnicate");
+    }
+
+    @Test
+    void storesABookFromGutendexAndReadsItBack() throws Exception {
+        // Jackson binding of the Gutendex records, Flyway migrations and Hibernate writes
+        Result search = run("search", "--title", "Dracula");
+        assertThat(search.status()).as(search.err()).isZero();
+        assertThat(search.out()).contains("gutenberg_id\t345", "title\tDracula", "author\tStoker, Bram",
+                "language\ten", "downloads\t98765");
+
+        // A new process on the same database: queries, projections and the in-memory rankings
+        Result top = run("top", "--n", "5");
+        assertThat(top.status()).as(top.err()).isZero();
+        assertThat(top.out().lines()).hasSize(2).last().asString()
+                .startsWith("1\t").endsWith("\tDracula\tStoker, Bram\ten\t98765");
+
+        Result stats = run("stats");
+        assertThat(stats.status()).as(stats.err()).isZero();
+        assertThat(stats.out()).contains("books\t1", "downloads_max\t98765", "author\tStoker, Bram\t1\t98765");
+
+        Result export = run("export", "--format", "jsonl");
+        assertThat(export.status()).as(export.err()).isZero();
+        assertThat(export.out().lines()).singleElement().asString().contains("\"title\":\"Dracula\"");
+    }
+
+    @Test
+    void statsOnPostgresql() throws Exception {
+        String url = System.getProperty("literalura.it.jdbc.url", "");
+        assumeTrue(!url.isBlank(), "literalura.it.jdbc.url is not set");
+
+        Result stats = runWith(List.of("--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("literalura.it.jdbc.user", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("literalura.it.jdbc.password", "")),
+                "stats");
+
+        assertThat(stats.status()).as(stats.err()).isZero();
+        assertThat(stats.out()).startsWith("books\t");
+    }
+
+    private Result run(String... command) throws Exception {
+        return runWith(List.of("--spring.profiles.active=embedded", "--literalura.data-dir=" + dataDir), command);
+    }
+
+    private Result runWith(List<String> properties, String... command) throws Exception {
+        List<String> arguments = new ArrayList<>(launcher);
+        arguments.addAll(Arrays.asList(command));
+        arguments.addAll(properties);
+        arguments.add("--gutendex.base-url=http://127.0.0.1:" + gutendex.getAddress().getPort() + "/books/");
+        arguments.add("--downloads.refresh.enabled=false");
+
+        Path out = Files.createTempFile(dataDir, "out", ".txt");
+        Path err = Files.createTempFile(dataDir, "err", ".txt");
+        Process process = new ProcessBuilder(arguments)
+                .redirectOutput(out.toFile())
+                .redirectError(err.toFile())
+                .start();
+        process.getOutputStream().close();
+        if (!process.waitFor(2, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new AssertionError("Timed out: " + String.join(" ", arguments));
+        }
+        return new Result(process.exitValue(), Files.readString(out), Files.readString(err));
+    }
+
+    private record Result(int status, String out, String err) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.repository.JdbcCatalogWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The api profile over HTTP, on an in-memory H2 database with the embedded
+ * profile's migrations.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-api;MODE=PostgreSQL",
+        "downloads.refresh.enabled=false"
+})
+@ActiveProfiles({"embedded", "api"})
+class CatalogApiTest {
+
+    private static final String[] LANGUAGES = {"en", "es"};
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcCatalogWriter catalogWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("DELETE FROM book_authors; DELETE FROM book_languages; DELETE FROM books; DELETE FROM authors");
+        List<BookDTO> books = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            AuthorDTO author = new AuthorDTO("Author, Synthetic " + id % 30, 1700 + (int) (id % 30), 1760 + (int) (id % 30));
+            books.add(new BookDTO(id, "Book " + id, List.of(author), List.of(LANGUAGES[(int) (id % 2)]), id * 10.0));
+        }
+        catalogWriter.write(books);
+        eventPublisher.publishEvent(new CatalogChangedEvent());
+    }
+
+    @Test
+    void revalidatedReadsAnswerNotModifiedUntilTheCatalogChanges() throws Exception {
+        HttpResponse<String> first = get("/api/books/top?n=2");
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.body()).startsWith("[{\"id\":").contains("\"title\":\"Book 300\"");
+        assertThat(first.headers().firstValue("Cache-Control")).hasValue("no-cache");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(first.headers().firstValue("Last-Modified")).isPresent();
+
+        HttpResponse<String> revalidated = get("/api/books/top?n=2", "If-None-Match", etag);
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(revalidated.body()).isEmpty();
+
+        eventPublisher.publishEvent(new CatalogChangedEvent());
+        HttpResponse<String> changed = get("/api/books/top?n=2", "If-None-Match", etag);
+        assertThat(changed.statusCode()).isEqualTo(200);
+        assertThat(changed.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void compressesLargeResponses() throws Exception {
+        HttpResponse<String> response = get("/api/books/language/es", "Accept-Encoding", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    }
+
+    @Test
+    void pagesThroughTheCatalogById() throws Exception {
+        Pattern next = Pattern.compile("\"next\":(\\d+|null)}$");
+        Set<String> titles = new HashSet<>();
+        String path = "/api/books";
+        int pages = 0;
+        while (path != null) {
+            String body = get(path).body();
+            Matcher matcher = next.matcher(body);
+            assertThat(matcher.find()).as(body).isTrue();
+            Matcher title = Pattern.compile("\"title\":\"([^\"]+)\"").matcher(body);
+            while (title.find()) {
+                titles.add(title.group(1));
+            }
+            path = matcher.group(1).equals("null") ? null : "/api/books?after=" + matcher.group(1);
+            pages++;
+        }
+
+        assertThat(titles).hasSize(300);
+        assertThat(pages).isEqualTo(15);
+    }
+
+    @Test
+    void rejectsInvalidParametersWithProblemDetails() throws Exception {
+        HttpResponse<String> response = get("/api/books/top?n=0");
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/problem+json");
+        assertThat(response.body()).contains("n debe estar entre 1 y 1000");
+        assertThat(get("/api/authors/alive").statusCode()).isEqualTo(400);
+    }
+
+    private HttpResponse<String> get(String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,33 @@
+package com.alura.literalura.api;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.event.BooksSavedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionTest {
+
+    @Test
+    void movesOnLocalChanges() {
+        CatalogVersion version = new CatalogVersion(new CatalogMemoryProperties(Duration.ofHours(1)));
+        String before = version.current().etag();
+
+        assertThat(version.current().etag()).isEqualTo(before);
+        version.onBooksSaved(new BooksSavedEvent(List.of()));
+        assertThat(version.current().etag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void movesOncePerMaxAgeSoOtherProcessesWritesReachClients() throws InterruptedException {
+        CatalogVersion version = new CatalogVersion(new CatalogMemoryProperties(Duration.ofMillis(50)));
+        String before = version.current().etag();
+
+        Thread.sleep(120);
+
+        assertThat(version.current().etag()).isNotEqualTo(before);
+    }
+}
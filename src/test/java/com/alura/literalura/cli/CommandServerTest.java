@@ -0,0 +1,113 @@
+package com.alura.literalura.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandServerTest {
+
+    @TempDir
+    private Path dataDir;
+
+    private CommandServer server;
+    private CompletableFuture<Void> serving;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        // Echoes the command and fails "fail"; no services behind it
+        CommandRunner runner = new CommandRunner(null, null, null, null, null) {
+            @Override
+            public int execute(List<String> words, PrintStream out, PrintStream err) {
+                if (words.get(0).equals("fail")) {
+                    err.println("Error: boom");
+                    return EXIT_FAILURE;
+                }
+                out.println(String.join("|", words));
+                return EXIT_OK;
+            }
+        };
+        server = new CommandServer(runner, 0, dataDir.resolve("command-server.token"));
+        serving = CompletableFuture.runAsync(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void answersEachCommandWithItsOutputAndStatus() throws IOException {
+        assertThat(send(auth() + "top --n 5\n\nsearch --title \"Don Quijote\"\nfail\nserver\nquit\nstats\n")).containsExactly(
+                "top|--n|5", "exit 0",
+                "search|--title|Don Quijote", "exit 0",
+                "Error: boom", "exit 1",
+                "Ya en modo servidor", "exit 2");
+    }
+
+    @Test
+    void shutdownStopsTheServer() throws Exception {
+        assertThat(send(auth() + "shutdown\n")).containsExactly("exit 0");
+
+        serving.get(10, TimeUnit.SECONDS);
+        assertThat(serving).isCompleted();
+        assertThat(dataDir.resolve("command-server.token")).doesNotExist();
+    }
+
+    @Test
+    void rejectsConnectionsWithoutTheToken() throws IOException {
+        assertThat(send("top --n 5\n")).containsExactly(
+                "No autorizado: la conexion debe empezar con 'auth <token>'", "exit 1");
+        assertThat(send("auth wrong\ntop --n 5\n")).containsExactly(
+                "No autorizado: la conexion debe empezar con 'auth <token>'", "exit 1");
+    }
+
+    @Test
+    void onlyTheOwnerCanReadTheToken() throws IOException {
+        Path tokenFile = dataDir.resolve("command-server.token");
+        if (Files.getFileStore(tokenFile).supportsFileAttributeView("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile))).isEqualTo("rw-------");
+        }
+        assertThat(Files.readString(tokenFile).trim()).hasSizeGreaterThanOrEqualTo(43);
+    }
+
+    private String auth() throws IOException {
+        return "auth " + Files.readString(dataDir.resolve("command-server.token")).trim() + "\n";
+    }
+
+    private List<String> send(String lines) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            OutputStream out = socket.getOutputStream();
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            return in.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.alura.literalura.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandTest {
+
+    @Test
+    void leavesSpringPropertiesOutOfTheCommand() {
+        assertThat(Command.words("--spring.profiles.active=embedded", "top", "--n", "50", "--lang", "es"))
+                .containsExactly("top", "--n", "50", "--lang", "es");
+        assertThat(Command.words("--spring.profiles.active=embedded")).isEmpty();
+    }
+
+    @Test
+    void rejectsCommandOptionsJoinedToTheirValue() {
+        List<String> words = Command.words("top", "--n=50", "--server.port=8081");
+
+        assertThat(words).containsExactly("top", "--n=50");
+        assertThatThrownBy(() -> Command.parse(words))
+                .isInstanceOf(UsageException.class)
+                .hasMessageContaining("--n 50");
+    }
+
+    @Test
+    void parsesOptionsAndFlags() {
+        Command command = Command.parse(List.of("import", "--all", "--file", "titles.txt"));
+
+        assertThat(command.name()).isEqualTo("import");
+        assertThat(command.options()).isEqualTo(Map.of("all", "true", "file", "titles.txt"));
+        assertThat(command.intOption("n", 10, 1, 100)).isEqualTo(10);
+        assertThat(Command.parse(List.of("top", "--n", "-5")).options()).containsEntry("n", "-5");
+    }
+
+    @Test
+    void rejectsMalformedCommands() {
+        assertThatThrownBy(() -> Command.parse(List.of("--n", "5"))).isInstanceOf(UsageException.class);
+        assertThatThrownBy(() -> Command.parse(List.of("top", "50"))).isInstanceOf(UsageException.class);
+        assertThatThrownBy(() -> Command.parse(List.of("top", "--n", "1", "--n", "2")))
+                .isInstanceOf(UsageException.class);
+        assertThatThrownBy(() -> Command.parse(List.of("top", "--n", "many")).intOption("n", 10, 1, 100))
+                .isInstanceOf(UsageException.class);
+        assertThatThrownBy(() -> Command.parse(List.of("top", "--limit", "5")).allowOnly("n", "lang"))
+                .hasMessageContaining("--limit");
+        assertThatThrownBy(() -> Command.parse(List.of("search", "--title")).required("title"))
+                .hasMessageContaining("--title");
+    }
+
+    @Test
+    void splitsServerLinesWithQuotes() {
+        assertThat(Command.split("  search --title \"Don Quijote\"  "))
+                .containsExactly("search", "--title", "Don Quijote");
+        assertThat(Command.split("search --title \"El \\\"Quijote\\\"\"")).containsExactly("search", "--title",
+                "El \"Quijote\"");
+        assertThat(Command.split("search --title \"\"")).containsExactly("search", "--title", "");
+        assertThat(Command.split("   ")).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.alura.literalura.config;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiteraluraRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    LiteraluraRuntimeHintsTest() {
+        new LiteraluraRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void gutendexRecordsCanBeBoundByJackson() {
+        for (Class<?> type : new Class<?>[] {GutendexResponseDTO.class, BookDTO.class, AuthorDTO.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(BookDTO.class, "downloadCount"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.alura.literalura.service.GutendexCache$PersistedEntry"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    void entitiesAndDriversCanBeCreatedByReflection() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(Book.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.ACCESS_DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Author.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.ACCESS_DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("org.postgresql.Driver"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        // Java 21+ only, so checked on the hint rather than on the method
+        assertThat(hints.reflection().getTypeHint(Executors.class).methods())
+                .anySatisfy(method -> assertThat(method.getName()).isEqualTo("newVirtualThreadPerTaskExecutor"));
+    }
+
+    @Test
+    void everyMigrationIsIncludedInTheImage() throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/**/*.sql");
+
+        assertThat(migrations).isNotEmpty();
+        for (Resource migration : migrations) {
+            String path = migration.getURL().getPath();
+            String location = path.substring(path.indexOf("db/migration/"));
+            assertThat(RuntimeHintsPredicates.resource().forResource(location)).as(location).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.resource().forResource("caffeine.conf")).accepts(hints);
+    }
+}
@@ -0,0 +1,69 @@
+package com.alura.literalura.principal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsoleRendererTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+
+    @Test
+    void writesNothingUntilFlushed() {
+        renderer.text("║ ").number(1).text(". ").line("Don Quijote");
+
+        assertThat(output()).isEmpty();
+        renderer.flush();
+        assertThat(output()).isEqualTo("║ 1. Don Quijote\n");
+    }
+
+    @Test
+    void spillsInChunksOnceTheBufferIsFull() {
+        String row = "x".repeat(99);
+        int rows = 2 * ConsoleRenderer.BUFFER_SIZE / 100;
+        for (int i = 0; i < rows; i++) {
+            renderer.line(row);
+        }
+
+        assertThat(output()).hasSizeGreaterThanOrEqualTo(ConsoleRenderer.BUFFER_SIZE);
+        renderer.flush();
+        assertThat(output()).hasSize(rows * 100);
+    }
+
+    @Test
+    void printsNumbersLikeFormatButWithoutLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("es-ES"));
+        try {
+            renderer.number(12345.5, 0).text(' ')
+                    .number(2250.754, 2).text(' ')
+                    .number(0.5, 2).text(' ')
+                    .number(-0.004, 2).text(' ')
+                    .number(7.0, 1).text(' ')
+                    .number(null, 0).text(' ')
+                    .number(3e15, 0)
+                    .flush();
+        } finally {
+            Locale.setDefault(previous);
+        }
+
+        assertThat(output()).isEqualTo("12346 2250.75 0.50 0.00 7.0 - 3000000000000000");
+    }
+
+    @Test
+    void padsColumns() {
+        renderer.text('|').number(1850, 6).text('|').padded("██", 4).text('|').flush();
+
+        assertThat(output()).isEqualTo("|  1850|██  |");
+    }
+
+    private String output() {
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.alura.literalura.ranking;
+
+import com.alura.literalura.dto.BookListing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardTest {
+
+    @Test
+    void keepsTheBestBooksInOrder() {
+        Leaderboard board = new Leaderboard(3, List.of());
+        board.offer(book(1, 10.0));
+        board.offer(book(2, 50.0));
+        board.offer(book(3, null));
+        board.offer(book(4, 30.0));
+        board.offer(book(5, 30.0));
+
+        assertThat(ids(board.page(0, 10))).containsExactly(2L, 4L, 5L);
+        assertThat(board.size()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesWithinTheCapacity() {
+        Leaderboard board = new Leaderboard(4, List.of(book(1, 40.0), book(2, 30.0), book(3, 20.0), book(4, 10.0)));
+
+        assertThat(ids(board.page(1, 2))).containsExactly(2L, 3L);
+        assertThat(ids(board.pageAfter(book(2, 30.0), 5))).containsExactly(3L, 4L);
+        // Loaded up to its capacity: there may be more books in the database
+        assertThat(board.isComplete()).isFalse();
+    }
+
+    @Test
+    void pagesAfterABookWhoseDownloadsChangedSinceItWasShown() {
+        Leaderboard board = new Leaderboard(4, List.of(book(1, 40.0), book(2, 30.0), book(3, 20.0), book(4, 10.0)));
+
+        board.offer(book(2, 5.0));
+
+        // Resumes where book 2 was shown, not where it is now
+        assertThat(ids(board.pageAfter(book(2, 30.0), 2))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void aPartialLoadHoldsTheWholeRanking() {
+        Leaderboard board = new Leaderboard(4, List.of(book(1, 40.0), book(2, 30.0)));
+
+        assertThat(board.isComplete()).isTrue();
+        assertThat(ids(board.page(0, 100))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void movesBooksWhoseDownloadsChange() {
+        Leaderboard board = new Leaderboard(3, List.of(book(1, 30.0), book(2, 20.0), book(3, 10.0)));
+
+        board.offer(book(3, 35.0));
+
+        assertThat(ids(board.page(0, 3))).containsExactly(3L, 1L, 2L);
+        assertThat(board.isStale()).isFalse();
+    }
+
+    @Test
+    void becomesStaleWhenARankedBookDropsBelowBooksItNoLongerKnows() {
+        Leaderboard board = new Leaderboard(2, List.of(book(1, 30.0), book(2, 20.0), book(3, 10.0)));
+        assertThat(board.isStale()).isFalse();
+
+        // Book 3 (cut at load) may now be better than book 1
+        board.offer(book(1, 5.0));
+
+        assertThat(board.isStale()).isTrue();
+    }
+
+    @Test
+    void aBoardHoldingEveryBookNeverGoesStale() {
+        Leaderboard board = new Leaderboard(5, List.of(book(1, 30.0), book(2, 20.0)));
+
+        board.offer(book(1, 5.0));
+
+        assertThat(board.isStale()).isFalse();
+        assertThat(ids(board.page(0, 5))).containsExactly(2L, 1L);
+    }
+
+    private static BookListing book(long id, Double downloads) {
+        return new BookListing(id, "Book " + id, null, "en", downloads);
+    }
+
+    private static List<Long> ids(List<BookListing> books) {
+        return books.stream().map(BookListing::id).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Gutenberg id is the unique key imports dedupe on; titles may repeat.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class BookNaturalKeyTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        Author marx = authorRepository.save(new Author("Marx, Karl", 1818, 1883));
+        Author engels = authorRepository.save(new Author("Engels, Friedrich", 1820, 1895));
+
+        Book manifesto = new Book(61L, "The Communist Manifesto", marx, "en", 500.0);
+        manifesto.setAuthors(List.of(marx, engels));
+        manifesto.setLanguages(new LinkedHashSet<>(List.of("en", "de")));
+        bookRepository.save(manifesto);
+        // Same title, different Gutenberg book
+        bookRepository.save(new Book(31193L, "The Communist Manifesto", marx, "de", 50.0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findsByGutenbergIdWithEveryAuthorAndLanguage() {
+        Book book = bookRepository.findByGutenbergId(61L).orElseThrow();
+        entityManager.clear();
+
+        assertEquals("Marx, Karl", book.getAuthor().getName());
+        assertEquals(List.of("Marx, Karl", "Engels, Friedrich"),
+                book.getAuthors().stream().map(Author::getName).toList());
+        assertEquals(Set.of("en", "de"), book.getLanguages());
+        assertTrue(bookRepository.findByGutenbergId(62L).isEmpty());
+    }
+
+    @Test
+    void reportsWhichGutenbergIdsAreStored() {
+        assertEquals(Set.of(61L, 31193L), bookRepository.findStoredGutenbergIds(List.of(61L, 62L, 31193L)));
+    }
+
+    @Test
+    void rejectsASecondCopyOfTheSameGutenbergBook() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookRepository.saveAndFlush(new Book(61L, "Manifesto of the Communist Party", null, "en", 1.0)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureJdbc;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The embedded profile on an in-memory copy of its H2 database: the schema
+ * comes from the db/migration/h2 scripts alone and must match the entities
+ * (checked by {@code ddl-auto=validate}), and the JDBC import and substring
+ * searches must run on it.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:embedded-profile;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureJdbc
+@Import(JdbcCatalogWriter.class)
+class EmbeddedProfileTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcCatalogWriter catalogWriter;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Test
+    void appliesTheH2MigrationsInOrder() {
+        assertThat(flyway.info().applied())
+                .extracting(migration -> migration.getVersion().getVersion(), migration -> migration.getState().isApplied())
+                .containsExactly(tuple("1", true), tuple("2", true), tuple("3", true), tuple("4", true), tuple("5", true));
+    }
+
+    @Test
+    void bulkImportSkipsBooksAndAuthorsAlreadyStored() {
+        AuthorDTO cervantes = new AuthorDTO("Cervantes Saavedra, Miguel de", 1547, 1616);
+        List<BookDTO> books = List.of(
+                new BookDTO(2000L, "Don Quijote", List.of(cervantes), List.of("es"), 900.0),
+                new BookDTO(996L, "Don Quixote", List.of(cervantes), List.of("en"), 1500.0));
+
+        assertThat(catalogWriter.write(books)).isEqualTo(2);
+        assertThat(catalogWriter.write(books)).isZero();
+        assertThat(authorRepository.findAll()).extracting(Author::getName)
+                .containsExactly("Cervantes Saavedra, Miguel de");
+        assertThat(bookRepository.findByGutenbergId(996L).orElseThrow().getLanguages()).containsExactly("en");
+    }
+
+    @Test
+    void searchesFallBackToSubstringMatches() {
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        authorRepository.save(new Author("Shelley, Mary Wollstonecraft", 1797, 1851));
+        bookRepository.save(new Book(158L, "Emma", austen, "en", 100.0));
+        bookRepository.save(new Book(1342L, "Pride and Prejudice", austen, "en", 300.0));
+        bookRepository.save(new Book(42671L, "Pride and Prejudice, Volume 1", austen, "en", null));
+
+        assertThat(bookRepository.searchByTitleSubstring("PRIDE", PageRequest.of(0, 10)))
+                .extracting(Book::getGutenbergId)
+                .containsExactly(1342L, 42671L);
+        assertThat(authorRepository.searchByNameSubstring("mary", PageRequest.of(0, 10)))
+                .extracting(Author::getName)
+                .containsExactly("Shelley, Mary Wollstonecraft");
+    }
+}
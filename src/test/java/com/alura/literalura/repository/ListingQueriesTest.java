@@ -0,0 +1,168 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.AuthorSummary;
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.search.LifespanEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every console screen must cost exactly one SQL statement, whatever the
+ * number of authors and books involved. Runs on H2 and counts the prepared
+ * statements through Hibernate statistics.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListingQueriesTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        // 5 authors with 6 books each, plus one anonymous book: 31 books
+        List<Book> books = new ArrayList<>();
+        for (int a = 0; a < 5; a++) {
+            Author author = authorRepository.save(new Author("Author " + (char) ('E' - a), 1800 + a * 20, 1870 + a * 20));
+            for (int b = 0; b < 6; b++) {
+                Book book = new Book("Title " + a + "-" + b, author, b % 2 == 0 ? "en" : "es", (double) (a * 10 + b));
+                author.getBooks().add(book);
+                books.add(book);
+            }
+        }
+        books.add(new Book("Anonymous title", null, "fr", null));
+        bookRepository.saveAll(books);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void bookPagesSelectAuthorNamesInOneStatement() {
+        List<BookListing> first = inOneStatement(() -> bookRepository.findListingsAfter(0, Limit.of(21)));
+        assertEquals(21, first.size());
+        assertEquals("Author E", first.get(0).authorName());
+
+        long lastId = first.get(19).id();
+        List<BookListing> second = inOneStatement(() -> bookRepository.findListingsAfter(lastId, Limit.of(21)));
+        assertEquals(11, second.size());
+        assertTrue(second.get(0).id() > lastId);
+        assertNull(second.get(10).authorName());
+    }
+
+    @Test
+    void rankingPagesResumeAfterTheLastBookShown() {
+        // Ties on 45 downloads and a second book without a count
+        bookRepository.saveAll(List.of(new Book("Tied title", null, "en", 45.0),
+                new Book("Uncounted title", null, "en", null)));
+        entityManager.flush();
+        List<BookListing> expected = bookRepository.findMostDownloadedListings(Limit.of(100));
+
+        List<BookListing> pages = new ArrayList<>(bookRepository.findMostDownloadedListings(Limit.of(4)));
+        while (pages.size() < expected.size()) {
+            BookListing last = pages.get(pages.size() - 1);
+            List<BookListing> page = last.downloads() != null
+                    ? new ArrayList<>(inOneStatement(() -> bookRepository.findMostDownloadedListingsAfter(
+                            last.downloads(), last.id(), Limit.of(4))))
+                    : new ArrayList<>();
+            if (page.size() < 4) {
+                long afterId = last.downloads() == null ? last.id() : 0L;
+                page.addAll(inOneStatement(
+                        () -> bookRepository.findUncountedListingsAfter(afterId, Limit.of(4 - page.size()))));
+            }
+            assertTrue(page.size() <= 4);
+            pages.addAll(page);
+        }
+
+        assertEquals(33, pages.size());
+        assertEquals(expected, pages);
+    }
+
+    @Test
+    void authorPagesFollowNameOrder() {
+        List<AuthorSummary> first = inOneStatement(() -> authorRepository.findSummariesAfter(null, 0, Limit.of(3)));
+        assertEquals(List.of("Author A", "Author B", "Author C"), first.stream().map(AuthorSummary::name).toList());
+
+        AuthorSummary last = first.get(2);
+        List<AuthorSummary> rest = inOneStatement(
+                () -> authorRepository.findSummariesAfter(last.name(), last.id(), Limit.of(3)));
+        assertEquals(List.of("Author D", "Author E"), rest.stream().map(AuthorSummary::name).toList());
+    }
+
+    @Test
+    void filteredScreensUseOneStatement() {
+        assertEquals(15, inOneStatement(() -> bookRepository.findListingsByLanguage("en")).size());
+
+        List<BookListing> top = inOneStatement(() -> bookRepository.findMostDownloadedListings(Limit.of(10)));
+        assertEquals(45.0, top.get(0).downloads());
+        assertEquals("Author A", top.get(0).authorName());
+
+        assertEquals(3, inOneStatement(() -> authorRepository.findSummariesAliveInYear(1850)).size());
+        assertEquals(2, inOneStatement(() -> authorRepository.findSummariesByBirthYearBetween(1820, 1840)).size());
+
+        List<Long> ids = bookRepository.findAll().stream().limit(4).map(Book::getId).toList();
+        statistics.clear();
+        assertEquals(4, inOneStatement(() -> bookRepository.findListingsByIdIn(ids)).size());
+    }
+
+    @Test
+    void titleLookupFetchesTheAuthorWithTheBook() {
+        Book book = inOneStatement(() -> {
+            Book found = bookRepository.findByTitleContainsIgnoreCase("title 3-4").orElseThrow();
+            found.getAuthor().getBirthYear();
+            return found;
+        });
+        assertEquals("Author B", book.getAuthor().getName());
+    }
+
+    @Test
+    void authorEntitiesNoLongerLoadTheirBooks() {
+        List<Author> authors = inOneStatement(() -> authorRepository.findByBirthYearBetween(1800, 1850));
+        assertEquals(3, authors.size());
+    }
+
+    @Test
+    void lifespansComeInBirthOrder() {
+        List<LifespanEntry> lifespans = inOneStatement(() -> authorRepository.findAllLifespans());
+        assertEquals(List.of(1800, 1820, 1840, 1860, 1880), lifespans.stream().map(LifespanEntry::birthYear).toList());
+    }
+
+    private <T> T inOneStatement(Supplier<T> query) {
+        statistics.clear();
+        T result = query.get();
+        assertEquals(1, statistics.getPrepareStatementCount(), "SQL statements executed");
+        return result;
+    }
+}
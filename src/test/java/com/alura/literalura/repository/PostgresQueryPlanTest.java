@@ -0,0 +1,170 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureJdbc;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link QueryPlanTest} on PostgreSQL, where {@code V5__query_indexes.sql}
+ * also creates the per-author ranking index and the partial index of the
+ * download refresh. Skipped unless a PostgreSQL 16 or later answers at
+ * {@code plan.jdbc.url} (user {@code plan.jdbc.user}, password
+ * {@code plan.jdbc.password}; the application database by default). The
+ * migrations are applied there and the test rows are rolled back.
+ * <p>
+ * The queries are planned with {@code EXPLAIN (GENERIC_PLAN)}, as for any
+ * parameter values, after {@code ANALYZE} and with sequential scans
+ * disabled: a table scan only shows up when no index can answer the query.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.alura.literalura.repository.QueryPlanTest$LastStatement"
+})
+@AutoConfigureJdbc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf(value = "postgresAvailable", disabledReason = "No PostgreSQL 16+ at plan.jdbc.url")
+class PostgresQueryPlanTest {
+
+    private static final String URL = System.getProperty("plan.jdbc.url", "jdbc:postgresql://localhost:5432/literalura");
+    private static final String USER = System.getProperty("plan.jdbc.user", "postgres");
+    private static final String PASSWORD = System.getProperty("plan.jdbc.password", "3320");
+
+    private static final String[] LANGUAGES = {"en", "es", "fr", "pt"};
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Author author;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> USER);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+    }
+
+    static boolean postgresAvailable() {
+        DriverManager.setLoginTimeout(2);
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW server_version_num")) {
+            return resultSet.next() && resultSet.getInt(1) >= 160000;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            authors.add(new Author("Plan test author " + i, 1500 + i * 2, i % 10 == 0 ? null : 1560 + i * 2));
+        }
+        authorRepository.saveAll(authors);
+        author = authors.get(0);
+
+        // Negative Gutenberg ids never clash with real books; most books have none, as after a manual entry
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            books.add(new Book(i % 10 == 0 ? -1L - i : null, "Plan test book " + i, authors.get(i % authors.size()),
+                    LANGUAGES[i % LANGUAGES.length], i % 50 == 0 ? null : (double) (i * 7919 % 10000)));
+        }
+        bookRepository.saveAll(books);
+        entityManager.flush();
+        entityManager.clear();
+
+        // ANALYZE counts the rows of its own transaction; both settings end with the test rollback
+        jdbcTemplate.execute("ANALYZE authors");
+        jdbcTemplate.execute("ANALYZE books");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void booksByLanguage() {
+        assertThat(planOf(() -> bookRepository.findBooksByLanguage("es"))).contains("idx_books_language_downloads");
+        assertThat(planOf(() -> bookRepository.findListingsByLanguage("es"))).contains("idx_books_language_downloads");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByLanguage("es", Limit.of(10))))
+                .contains("idx_books_language_downloads");
+    }
+
+    @Test
+    void rankings() {
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListings(Limit.of(10)))).contains("idx_books_downloads");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsAfter(5000.0, 42L, Limit.of(10))))
+                .contains("idx_books_downloads");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByLanguageAfter("es", 5000.0, 42L,
+                Limit.of(10)))).contains("idx_books_language_downloads");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByAuthorId(author.getId(), Limit.of(10))))
+                .contains("idx_books_author_downloads");
+    }
+
+    @Test
+    void authorsByYear() {
+        assertThat(planOf(() -> authorRepository.findSummariesAliveInYear(1550))).contains("idx_authors_birth_death");
+        assertThat(planOf(() -> authorRepository.findByBirthYearBetween(1600, 1620))).contains("idx_authors_birth_death");
+        assertThat(planOf(() -> authorRepository.findSummariesByBirthYearBetween(1600, 1620)))
+                .contains("idx_authors_birth_death");
+    }
+
+    @Test
+    void downloadRefreshBatches() {
+        assertThat(planOf(() -> bookRepository.findDownloadSnapshots(0L, Limit.of(32))))
+                .contains("idx_books_refreshable");
+    }
+
+    private String planOf(Runnable query) {
+        QueryPlanTest.LastStatement.sql = null;
+        query.run();
+        String sql = QueryPlanTest.LastStatement.sql;
+        assertThat(sql).as("SQL of the query").isNotNull();
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+        assertThat(plan).doesNotContain("Seq Scan");
+        return plan;
+    }
+
+    // GENERIC_PLAN takes $1, $2... where Hibernate writes ?
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureJdbc;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL of each filtering or ranking repository
+ * query, over the schema built by the migrations, and checks that H2 reads
+ * the index meant for it instead of scanning the table.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.alura.literalura.repository.QueryPlanTest$LastStatement"
+})
+@AutoConfigureJdbc
+class QueryPlanTest {
+
+    private static final String[] LANGUAGES = {"en", "es", "fr", "pt"};
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Author author;
+
+    @BeforeEach
+    void seed() {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            authors.add(new Author("Author " + i, 1500 + i * 2, i % 10 == 0 ? null : 1560 + i * 2));
+        }
+        authorRepository.saveAll(authors);
+        author = authors.get(0);
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            books.add(new Book((long) i, "Book " + i, authors.get(i % authors.size()), LANGUAGES[i % LANGUAGES.length],
+                    i % 50 == 0 ? null : (double) (i * 7919 % 10000)));
+        }
+        bookRepository.saveAll(books);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void booksByLanguage() {
+        assertThat(planOf(() -> bookRepository.findBooksByLanguage("es"))).contains("IDX_BOOKS_LANGUAGE_DOWNLOADS");
+        assertThat(planOf(() -> bookRepository.findListingsByLanguage("es"))).contains("IDX_BOOKS_LANGUAGE_DOWNLOADS");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByLanguage("es", Limit.of(10))))
+                .contains("IDX_BOOKS_LANGUAGE_DOWNLOADS");
+    }
+
+    @Test
+    void rankings() {
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListings(Limit.of(10)))).contains("IDX_BOOKS_DOWNLOADS");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsAfter(5000.0, 42L, Limit.of(10))))
+                .contains("IDX_BOOKS_DOWNLOADS");
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByLanguageAfter("es", 5000.0, 42L,
+                Limit.of(10)))).contains("IDX_BOOKS_LANGUAGE_DOWNLOADS");
+        // H2 also indexes the author_id foreign key by itself and may pick either index
+        assertThat(planOf(() -> bookRepository.findMostDownloadedListingsByAuthorId(author.getId(), Limit.of(10))))
+                .contains("AUTHOR_ID = ?1 */");
+    }
+
+    @Test
+    void authorsByYear() {
+        assertThat(planOf(() -> authorRepository.findSummariesAliveInYear(1550))).contains("IDX_AUTHORS_BIRTH_DEATH");
+        assertThat(planOf(() -> authorRepository.findByBirthYearBetween(1600, 1620))).contains("IDX_AUTHORS_BIRTH_DEATH");
+        assertThat(planOf(() -> authorRepository.findSummariesByBirthYearBetween(1600, 1620)))
+                .contains("IDX_AUTHORS_BIRTH_DEATH");
+    }
+
+    private String planOf(Runnable query) {
+        LastStatement.sql = null;
+        query.run();
+        String sql = LastStatement.sql;
+        assertThat(sql).as("SQL of the query").isNotNull();
+        // H2 plans parameterized statements without values bound
+        String plan = jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+        assertThat(plan).doesNotContain("tableScan");
+        return plan;
+    }
+
+    /**
+     * Keeps the last SQL statement Hibernate prepared.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+}
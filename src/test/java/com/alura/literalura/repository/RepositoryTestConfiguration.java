@@ -0,0 +1,16 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.LiteraluraApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+
+/**
+ * Configuration picked up by the {@code @DataJpaTest}s of this package instead
+ * of {@link LiteraluraApplication}, whose command line runner needs the whole
+ * service layer. Tests in other packages name it in {@code @ContextConfiguration}.
+ * Entities and repositories are scanned from the application package as usual.
+ */
+@SpringBootConfiguration
+@AutoConfigurationPackage(basePackageClasses = LiteraluraApplication.class)
+public class RepositoryTestConfiguration {
+}
@@ -0,0 +1,128 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.BookListing;
+import com.alura.literalura.dto.CacheRegionStats;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureJdbc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level and query cache on H2: repeated reads cost no statement, and
+ * both JPA and JDBC writes are visible right after them.
+ * <p>
+ * Runs without a test transaction, since Hibernate skips the query cache
+ * while the current transaction has pending writes to the tables involved.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureJdbc
+@Import({ JdbcDownloadWriter.class, SecondLevelCache.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcDownloadWriter downloadWriter;
+
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Book emma;
+
+    @BeforeEach
+    void seed() {
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        emma = bookRepository.save(new Book(158L, "Emma", austen, "en", 100.0));
+        bookRepository.save(new Book(1342L, "Pride and Prejudice", austen, "en", 300.0));
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedMenuQueriesAreServedFromMemory() {
+        assertThat(statementsFor(() -> bookRepository.findListingsByLanguage("en"))).isEqualTo(1);
+        assertThat(statementsFor(() -> bookRepository.findListingsByLanguage("en"))).isZero();
+        assertThat(statementsFor(() -> authorRepository.findSummariesAliveInYear(1800))).isEqualTo(1);
+        assertThat(statementsFor(() -> authorRepository.findSummariesAliveInYear(1800))).isZero();
+        assertThat(statementsFor(() -> bookRepository.findById(emma.getId()))).isEqualTo(1);
+        assertThat(statementsFor(() -> bookRepository.findById(emma.getId()))).isZero();
+
+        assertThat(secondLevelCache.stats())
+                .filteredOn(region -> region.region().equals(CacheableQuery.REGION))
+                .singleElement()
+                .extracting(CacheRegionStats::hits, CacheRegionStats::misses)
+                .containsExactly(2L, 2L);
+    }
+
+    @Test
+    void aJpaWriteInvalidatesTheCachedQueries() {
+        assertThat(bookRepository.findListingsByLanguage("en")).hasSize(2);
+
+        bookRepository.save(new Book(105L, "Persuasion", null, "en", 50.0));
+
+        assertThat(bookRepository.findListingsByLanguage("en")).extracting(BookListing::title)
+                .containsExactly("Emma", "Pride and Prejudice", "Persuasion");
+    }
+
+    @Test
+    void aRefreshEventEvictsWhatTheJdbcWriterChanged() {
+        bookRepository.findById(emma.getId());
+        assertThat(bookRepository.findListingsByLanguage("en")).extracting(BookListing::downloads)
+                .containsExactly(100.0, 300.0);
+
+        Map<Long, Double> changed = Map.of(emma.getId(), 900.0);
+        downloadWriter.updateDownloads(changed);
+        eventPublisher.publishEvent(new DownloadsRefreshedEvent(changed));
+
+        assertThat(bookRepository.findById(emma.getId()).orElseThrow().getDownloads()).isEqualTo(900.0);
+        assertThat(bookRepository.findListingsByLanguage("en")).extracting(BookListing::downloads)
+                .containsExactly(900.0, 300.0);
+    }
+
+    private long statementsFor(Supplier<?> query) {
+        long before = statistics.getPrepareStatementCount();
+        query.get();
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
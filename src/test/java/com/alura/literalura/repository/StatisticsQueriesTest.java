@@ -0,0 +1,111 @@
+package com.alura.literalura.repository;
+
+import com.alura.literalura.dto.CenturyStatistics;
+import com.alura.literalura.dto.DownloadSummary;
+import com.alura.literalura.dto.GroupStatistics;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.model.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Aggregate statistics queries on H2 against figures worked out by hand.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class StatisticsQueriesTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        Author aristotle = authorRepository.save(new Author("Aristotle", -384, -322));
+        Author victorian = authorRepository.save(new Author("Victorian", 1850, 1910));
+        Author modern = authorRepository.save(new Author("Modern", 1920, null));
+        Author unknown = authorRepository.save(new Author("Unknown Dates", null, null));
+        bookRepository.saveAll(List.of(
+                new Book("Poetics", aristotle, "en", 30.0),
+                new Book("Victorian I", victorian, "en", 10.0),
+                new Book("Victorian II", victorian, "en", 20.0),
+                new Book("Modern", modern, "es", 40.0),
+                new Book("Undated", unknown, "es", 50.0),
+                new Book("Anonymous", null, "fr", null)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void summarizesDownloadsIgnoringUnknownCounts() {
+        DownloadSummary summary = bookRepository.summarizeDownloads();
+
+        assertEquals(6, summary.books());
+        assertEquals(150.0, summary.totalDownloads(), DELTA);
+        assertEquals(30.0, summary.averageDownloads(), DELTA);
+        assertEquals(10.0, summary.minDownloads(), DELTA);
+        assertEquals(50.0, summary.maxDownloads(), DELTA);
+        assertEquals(30.0, summary.medianDownloads(), DELTA);
+        // 90% of the way from the 1st to the 5th value: 40 + 0.6 * (50 - 40)
+        assertEquals(46.0, summary.p90Downloads(), DELTA);
+    }
+
+    @Test
+    void summarizesAnEmptyCatalog() {
+        bookRepository.deleteAllInBatch();
+
+        DownloadSummary summary = bookRepository.summarizeDownloads();
+
+        assertEquals(0, summary.books());
+        assertEquals(0.0, summary.totalDownloads(), DELTA);
+        assertNull(summary.averageDownloads());
+        assertNull(summary.medianDownloads());
+    }
+
+    @Test
+    void groupsByLanguageMostBooksFirst() {
+        List<GroupStatistics> languages = bookRepository.summarizeByLanguage();
+
+        assertEquals(List.of("en", "es", "fr"), languages.stream().map(GroupStatistics::name).toList());
+        assertEquals(3, languages.get(0).books());
+        assertEquals(60.0, languages.get(0).totalDownloads(), DELTA);
+        assertEquals(0.0, languages.get(2).totalDownloads(), DELTA);
+        assertNull(languages.get(2).averageDownloads());
+    }
+
+    @Test
+    void ranksAuthorsByDownloads() {
+        List<GroupStatistics> authors = bookRepository.summarizeTopAuthors(Limit.of(3));
+
+        assertEquals(List.of("Unknown Dates", "Modern", "Aristotle"),
+                authors.stream().map(GroupStatistics::name).toList());
+    }
+
+    @Test
+    void bucketsAuthorsByCenturyOfBirth() {
+        List<CenturyStatistics> centuries = bookRepository.summarizeByCentury();
+
+        assertEquals(List.of(-400, 1800, 1900), centuries.stream().map(CenturyStatistics::startYear).toList());
+        assertEquals(-301, centuries.get(0).endYear());
+        assertEquals(1, centuries.get(1).authors());
+        assertEquals(2, centuries.get(1).books());
+        assertEquals(30.0, centuries.get(1).totalDownloads(), DELTA);
+    }
+}
@@ -0,0 +1,70 @@
+package com.alura.literalura.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LifespanIndexTest {
+
+    @Test
+    void aliveMeansBornInOrBeforeAndDeadInOrAfterTheYear() {
+        LifespanIndex index = new LifespanIndex();
+        index.add(1, 1547, 1616);   // Cervantes
+        index.add(2, 1564, 1616);   // Shakespeare
+        index.add(3, -384, -322);   // Aristotle
+        index.add(4, 1947, null);   // living author
+        index.add(5, 1802, 1885);   // Hugo
+
+        assertThat(index.aliveCounts(1616, 1617)).containsExactly(2, 0);
+        assertThat(index.aliveCounts(-350, -350)).containsExactly(1);
+        assertThat(index.aliveCounts(1950, 1950)).containsExactly(1);
+        assertThat(index.aliveCounts(1885, 1886)).containsExactly(1, 0);
+    }
+
+    @Test
+    void idsAlreadyIndexedAreIgnored() {
+        LifespanIndex index = new LifespanIndex();
+        index.add(1, 1800, 1850);
+        index.add(1, 1800, 1850);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.aliveCounts(1800, 1800)).containsExactly(1);
+    }
+
+    @Test
+    void countsEveryYearOfARange() {
+        LifespanIndex index = new LifespanIndex();
+        index.add(1, 1800, 1802);
+        index.add(2, 1801, null);
+        index.add(3, 1790, 1800);
+
+        assertThat(index.aliveCounts(1799, 1804)).containsExactly(1, 2, 2, 2, 1, 1);
+    }
+
+    @Test
+    void matchesABruteForceScanInAnyInsertionOrder() {
+        Random random = new Random(42);
+        int authors = 2_000;
+        int[] births = new int[authors];
+        Integer[] deaths = new Integer[authors];
+        LifespanIndex index = new LifespanIndex();
+        for (int id = 0; id < authors; id++) {
+            births[id] = -500 + random.nextInt(2500);
+            deaths[id] = random.nextInt(10) == 0 ? null : births[id] + random.nextInt(100);
+            index.add(id, births[id], deaths[id]);
+        }
+
+        int[] counts = index.aliveCounts(-600, 2100);
+        for (int year = -600; year <= 2100; year += 7) {
+            int expected = 0;
+            for (int id = 0; id < authors; id++) {
+                if (births[id] <= year && (deaths[id] == null || deaths[id] >= year)) {
+                    expected++;
+                }
+            }
+            assertThat(counts[year + 600]).as("count for %d", year).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.alura.literalura.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenIndexTest {
+
+    private final TokenIndex index = new TokenIndex();
+
+    @BeforeEach
+    void indexSomeTitles() {
+        index.add(1, "El ingenioso hidalgo don Quijote de la Mancha");
+        index.add(2, "Don Quijote");
+        index.add(3, "Les Misérables, Tome I: Fantine");
+        index.add(4, "Cœur simple");
+        index.add(5, "Don Juan Tenorio");
+    }
+
+    @Test
+    void everyWordMustMatchAndClosestTitlesComeFirst() {
+        assertThat(index.search("don quijote", 10)).containsExactly(2, 1);
+        assertThat(index.search("don", 10)).containsExactly(2, 5, 1);
+    }
+
+    @Test
+    void accentsCaseAndLigaturesAreFolded() {
+        assertThat(index.search("MISERABLES", 10)).containsExactly(3);
+        assertThat(index.search("coeur", 10)).containsExactly(4);
+        assertThat(index.search("quijoté", 10)).containsExactly(2, 1);
+    }
+
+    @Test
+    void lastWordMatchesAsPrefix() {
+        assertThat(index.search("don qui", 10)).containsExactly(2, 1);
+        assertThat(index.search("qui don", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexingAnIdIsIgnoredAndLimitIsApplied() {
+        index.add(2, "Something else entirely");
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.search("don", 1)).containsExactly(2);
+    }
+}
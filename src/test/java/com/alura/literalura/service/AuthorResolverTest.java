@@ -0,0 +1,56 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.event.CatalogChangedEvent;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.repository.AuthorRepository;
+import com.alura.literalura.repository.RepositoryTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Author names longer than the column are stored cut to it, the same way the
+ * JDBC catalog import stores them.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ContextConfiguration(classes = RepositoryTestConfiguration.class)
+class AuthorResolverTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void longNamesAreTruncatedAndShareTheirAuthor() {
+        AuthorResolver resolver = new AuthorResolver(authorRepository, transactionManager,
+                new CatalogMemoryProperties(Duration.ofMinutes(5)));
+        String prefix = "A".repeat(255);
+        AuthorDTO longName = new AuthorDTO(prefix + "B".repeat(45), 1800, 1860);
+        AuthorDTO otherTail = new AuthorDTO(prefix + "C", 1800, 1860);
+
+        Map<String, Author> first = resolver.resolve(List.of(longName));
+        Map<String, Author> second = resolver.resolve(List.of(otherTail));
+        resolver.onCatalogChanged(new CatalogChangedEvent());
+        Map<String, Author> uncached = resolver.resolve(List.of(longName));
+
+        Author author = first.get(longName.name());
+        assertThat(author.getName()).isEqualTo(prefix);
+        assertThat(second.get(otherTail.name()).getId()).isEqualTo(author.getId());
+        assertThat(uncached.get(longName.name()).getId()).isEqualTo(author.getId());
+        assertThat(authorRepository.count()).isEqualTo(1);
+    }
+}
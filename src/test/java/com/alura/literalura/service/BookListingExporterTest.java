@@ -0,0 +1,70 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.BookListing;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookListingExporterTest {
+
+    private static final List<BookListing> BOOKS = List.of(
+            new BookListing(1L, "Don Quijote", "Cervantes Saavedra, Miguel de", "es", 12345.0),
+            new BookListing(2L, "The \"Raven\"\nand other poems", null, "en", null),
+            new BookListing(3L, "Tab\there", "Poe, Edgar Allan", "en", 2.5));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvQuotesOnlyTheFieldsThatNeedIt() throws IOException {
+        Path file = export("books.csv");
+
+        assertThat(Files.readString(file, StandardCharsets.UTF_8)).isEqualTo("""
+                id,title,author,language,downloads
+                1,Don Quijote,"Cervantes Saavedra, Miguel de",es,12345
+                2,"The ""Raven""
+                and other poems",,en,
+                3,Tab\there,"Poe, Edgar Allan",en,2.5
+                """);
+    }
+
+    @Test
+    void jsonLinesHaveOneParseableObjectPerBook() throws IOException {
+        Path file = export("books.jsonl");
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(3);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode raven = objectMapper.readTree(lines.get(1));
+        assertThat(raven.get("title").asText()).isEqualTo("The \"Raven\"\nand other poems");
+        assertThat(raven.get("author").isNull()).isTrue();
+        assertThat(raven.get("downloads").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines.get(0)).get("downloads").asLong()).isEqualTo(12345);
+        assertThat(objectMapper.readTree(lines.get(2)).get("title").asText()).isEqualTo("Tab\there");
+    }
+
+    @Test
+    void rejectsUnknownExtensions() {
+        assertThatThrownBy(() -> BookListingExporter.open(dir.resolve("books.txt")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path export(String name) throws IOException {
+        Path file = dir.resolve(name);
+        try (BookListingExporter exporter = BookListingExporter.open(file)) {
+            BOOKS.forEach(exporter::write);
+            assertThat(exporter.rows()).isEqualTo(3);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,101 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.ImportReport;
+import com.alura.literalura.repository.CatalogWriter;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogImportServiceTest {
+
+    private static final int PAGES = 5;
+    private static final int BOOKS_PER_PAGE = 32;
+
+    private HttpServer server;
+    private String baseUrl;
+    private volatile int failingPage = -1;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books/";
+        server.createContext("/books/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            int page = query == null ? 1 : Integer.parseInt(query.substring("page=".length()));
+            byte[] body = page == failingPage
+                    ? "{\"detail\":\"boom\"}".getBytes(StandardCharsets.UTF_8)
+                    : cannedPage(page).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(page == failingPage ? 500 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void importsEveryPageFollowingNextLinks() {
+        List<BookDTO> written = Collections.synchronizedList(new ArrayList<>());
+        CatalogWriter writer = books -> {
+            written.addAll(books);
+            return books.size();
+        };
+        CatalogImportService service = new CatalogImportService(new GutendexService(baseUrl), writer, event -> {
+        });
+
+        ImportReport report = service.importCatalog(baseUrl, 3, 50);
+
+        assertThat(report.pages()).isEqualTo(PAGES);
+        assertThat(report.booksRead()).isEqualTo(PAGES * BOOKS_PER_PAGE);
+        assertThat(report.booksInserted()).isEqualTo(PAGES * BOOKS_PER_PAGE);
+        assertThat(report.booksPerSecond()).isPositive();
+        assertThat(written).extracting(BookDTO::title).doesNotHaveDuplicates().hasSize(PAGES * BOOKS_PER_PAGE);
+    }
+
+    @Test
+    void failingPageAbortsTheImport() {
+        failingPage = 3;
+        CatalogImportService service = new CatalogImportService(new GutendexService(baseUrl), List::size, event -> {
+        });
+
+        assertThatThrownBy(() -> service.importCatalog(baseUrl, 2, 50))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("500");
+    }
+
+    private String cannedPage(int page) {
+        String next = page < PAGES ? "\"" + baseUrl + "?page=" + (page + 1) + "\"" : "null";
+        String previous = page > 1 ? "\"" + baseUrl + "?page=" + (page - 1) + "\"" : "null";
+        StringBuilder results = new StringBuilder();
+        for (int i = 0; i < BOOKS_PER_PAGE; i++) {
+            if (i > 0) {
+                results.append(',');
+            }
+            int id = (page - 1) * BOOKS_PER_PAGE + i;
+            results.append("""
+                    {"id":%d,"title":"Book %d","authors":[{"name":"Author %d","birth_year":1800,"death_year":1870}],\
+                    "languages":["en"],"download_count":%d}""".formatted(id, id, id % 7, id * 10));
+        }
+        return """
+                {"count":%d,"next":%s,"previous":%s,"results":[%s]}"""
+                .formatted(PAGES * BOOKS_PER_PAGE, next, previous, results);
+    }
+}
@@ -0,0 +1,167 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.CatalogMemoryProperties;
+import com.alura.literalura.config.GutendexCacheProperties;
+import com.alura.literalura.config.LeaderboardProperties;
+import com.alura.literalura.dto.AuthorDTO;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.dto.TitleImportReport;
+import com.alura.literalura.model.Author;
+import com.alura.literalura.ranking.Leaderboards;
+import com.alura.literalura.repository.AuthorRepository;
+import com.alura.literalura.repository.BookRepository;
+import com.alura.literalura.repository.RepositoryTestConfiguration;
+import com.alura.literalura.repository.SecondLevelCache;
+import com.alura.literalura.search.AuthorLifespans;
+import com.alura.literalura.search.CatalogIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel title imports whose books share a small pool of authors. Every
+ * import must succeed and every author must be stored exactly once.
+ * <p>
+ * Runs without a test transaction so each import commits, like in the
+ * application; the batch size property gives this class its own context and
+ * therefore its own H2 database.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50"
+})
+@ContextConfiguration(classes = RepositoryTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentImportTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKS_PER_THREAD = 500;
+    private static final int AUTHORS = 60;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final StubGutendexService gutendexService = new StubGutendexService();
+
+    @AfterEach
+    void closeClient() {
+        gutendexService.close();
+    }
+
+    @Test
+    void parallelImportsShareAuthorsWithoutFailuresOrDuplicates() throws Exception {
+        BookService bookService = bookService();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TitleImportReport>> imports = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                List<String> titles = new ArrayList<>();
+                for (int b = 0; b < BOOKS_PER_THREAD; b++) {
+                    titles.add("book " + (t * BOOKS_PER_THREAD + b + 1));
+                }
+                imports.add(executor.submit(() -> {
+                    start.await();
+                    return bookService.importTitles(titles);
+                }));
+            }
+            start.countDown();
+
+            for (Future<TitleImportReport> result : imports) {
+                TitleImportReport report = result.get(2, TimeUnit.MINUTES);
+                assertThat(report.failed()).isEmpty();
+                assertThat(report.imported()).isEqualTo(BOOKS_PER_THREAD);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(bookRepository.count()).isEqualTo(THREADS * BOOKS_PER_THREAD);
+        List<Author> authors = authorRepository.findAll();
+        Set<String> names = new HashSet<>();
+        authors.forEach(author -> names.add(author.getName()));
+        assertThat(authors).hasSize(AUTHORS);
+        assertThat(names).hasSize(AUTHORS);
+        assertThat(bookRepository.findByGutenbergId(1234L).orElseThrow().getAuthors()).hasSize(2);
+    }
+
+    @Test
+    void resultsWithoutAGutenbergIdAreNotFound() {
+        TitleImportReport report = bookService().importTitles(List.of("untracked 1", "untracked 2"));
+
+        assertThat(report.imported()).isZero();
+        assertThat(report.alreadyStored()).isZero();
+        assertThat(report.notFound()).containsExactly("untracked 1", "untracked 2");
+        assertThat(report.failed()).isEmpty();
+    }
+
+    private BookService bookService() {
+        CatalogMemoryProperties memoryProperties = new CatalogMemoryProperties(Duration.ofMinutes(5));
+        return new BookService(bookRepository, authorRepository,
+                new GutendexCache(gutendexService, new GutendexCacheProperties(10_000, Duration.ofHours(1), "")),
+                transactionManager, new CatalogIndex(bookRepository, authorRepository, memoryProperties), event -> {
+                },
+                entityManager, new Leaderboards(bookRepository, new LeaderboardProperties(100, 256), memoryProperties),
+                new AuthorLifespans(authorRepository, memoryProperties),
+                new AuthorResolver(authorRepository, transactionManager, memoryProperties),
+                new SecondLevelCache(entityManagerFactory));
+    }
+
+    /**
+     * Answers "book N" with Gutenberg book N, written by two of the
+     * {@value #AUTHORS} shared authors, and "untracked N" with a book that
+     * has no Gutenberg id.
+     */
+    private static class StubGutendexService extends GutendexService {
+
+        @Override
+        public GutendexResponseDTO fetchBooks(String title) {
+            if (title.startsWith("untracked ")) {
+                BookDTO book = new BookDTO(null, "Untracked", List.of(author(0)), List.of("en"), 0.0);
+                return new GutendexResponseDTO(1, null, null, List.of(book));
+            }
+            long id = Long.parseLong(title.substring("book ".length()));
+            List<AuthorDTO> authors = List.of(author(id % AUTHORS), author((id * 7 + 1) % AUTHORS));
+            BookDTO book = new BookDTO(id, "Book " + id, authors, List.of("en"), (double) id);
+            return new GutendexResponseDTO(1, null, null, List.of(book));
+        }
+
+        private static AuthorDTO author(long n) {
+            return new AuthorDTO("Author " + n, 1800 + (int) n, 1860 + (int) n);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.DownloadRefreshProperties;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.alura.literalura.dto.RefreshReport;
+import com.alura.literalura.event.DownloadsRefreshedEvent;
+import com.alura.literalura.model.Book;
+import com.alura.literalura.repository.BookRepository;
+import com.alura.literalura.repository.JdbcDownloadWriter;
+import com.alura.literalura.repository.RepositoryTestConfiguration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureJdbc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Download refresh against H2 with a stubbed Gutendex client.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureJdbc
+@ContextConfiguration(classes = RepositoryTestConfiguration.class)
+@Import(JdbcDownloadWriter.class)
+class DownloadRefreshServiceTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcDownloadWriter downloadWriter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final StubGutendexService gutendexService = new StubGutendexService();
+    private final List<Object> events = new ArrayList<>();
+    private DownloadRefreshService refresher;
+    private Map<Long, Long> bookIds;
+
+    @BeforeEach
+    void seed() {
+        // Gutenberg ids 101..105 with 10 downloads each, plus a book stored without a Gutenberg id
+        List<Book> books = new ArrayList<>();
+        for (long gutenbergId = 101; gutenbergId <= 105; gutenbergId++) {
+            books.add(new Book(gutenbergId, "Book " + gutenbergId, null, "en", 10.0));
+        }
+        books.add(new Book(null, "Legacy book", null, "en", 10.0));
+        bookIds = new HashMap<>();
+        for (Book book : bookRepository.saveAll(books)) {
+            bookIds.put(book.getGutenbergId(), book.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        DownloadRefreshProperties properties = new DownloadRefreshProperties(false, Duration.ZERO,
+                Duration.ofHours(1), 2, 1000);
+        refresher = new DownloadRefreshService(gutendexService, bookRepository, downloadWriter, events::add,
+                properties);
+    }
+
+    @AfterEach
+    void closeClient() {
+        gutendexService.close();
+    }
+
+    @Test
+    void writesOnlyTheCountsThatChanged() {
+        gutendexService.downloads.putAll(Map.of(101L, 10.0, 102L, 25.0, 104L, 40.0));
+
+        RefreshReport report = refresher.refresh();
+
+        assertThat(report).isEqualTo(new RefreshReport(3, 5, 2, true));
+        assertThat(gutendexService.requests).containsExactly(List.of(101L, 102L), List.of(103L, 104L), List.of(105L));
+        assertThat(downloadsOf(101L)).isEqualTo(10.0);
+        assertThat(downloadsOf(102L)).isEqualTo(25.0);
+        assertThat(downloadsOf(103L)).isEqualTo(10.0);
+        assertThat(downloadsOf(104L)).isEqualTo(40.0);
+        assertThat(events).containsExactly(
+                new DownloadsRefreshedEvent(Map.of(bookIds.get(102L), 25.0)),
+                new DownloadsRefreshedEvent(Map.of(bookIds.get(104L), 40.0)));
+    }
+
+    @Test
+    void aPausedRunResumesWhereItStopped() {
+        gutendexService.onRequest = ids -> refresher.pause();
+
+        RefreshReport paused = refresher.refresh();
+        assertThat(paused.completed()).isFalse();
+        assertThat(paused.requests()).isEqualTo(1);
+        assertThat(refresher.refresh().requests()).isZero();
+
+        gutendexService.onRequest = ids -> {
+        };
+        refresher.resume();
+        RefreshReport resumed = refresher.refresh();
+
+        assertThat(resumed).isEqualTo(new RefreshReport(2, 3, 0, true));
+        assertThat(gutendexService.requests).containsExactly(List.of(101L, 102L), List.of(103L, 104L), List.of(105L));
+    }
+
+    @Test
+    void aFailedBatchIsRetriedByTheNextRun() {
+        gutendexService.onRequest = ids -> {
+            if (ids.contains(103L)) {
+                throw new RuntimeException("Gutendex API returned status 503");
+            }
+        };
+        assertThatThrownBy(refresher::refresh).hasMessageContaining("503");
+
+        gutendexService.onRequest = ids -> {
+        };
+        gutendexService.downloads.put(103L, 99.0);
+
+        assertThat(refresher.refresh()).isEqualTo(new RefreshReport(2, 3, 1, true));
+        assertThat(downloadsOf(103L)).isEqualTo(99.0);
+    }
+
+    private Double downloadsOf(long gutenbergId) {
+        entityManager.clear();
+        return bookRepository.findById(bookIds.get(gutenbergId)).orElseThrow().getDownloads();
+    }
+
+    private static class StubGutendexService extends GutendexService {
+
+        final Map<Long, Double> downloads = new HashMap<>();
+        final List<List<Long>> requests = new ArrayList<>();
+        Consumer<List<Long>> onRequest = ids -> {
+        };
+
+        @Override
+        public GutendexResponseDTO fetchByIds(Collection<Long> ids) {
+            List<Long> requested = List.copyOf(ids);
+            requests.add(requested);
+            onRequest.accept(requested);
+            List<BookDTO> books = requested.stream()
+                    .map(id -> new BookDTO(id, "Book " + id, List.of(), List.of("en"), downloads.getOrDefault(id, 10.0)))
+                    .toList();
+            return new GutendexResponseDTO(books.size(), null, null, books);
+        }
+    }
+}
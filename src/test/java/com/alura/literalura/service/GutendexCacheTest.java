@@ -0,0 +1,181 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.GutendexCacheProperties;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.CacheStats;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GutendexCacheTest {
+
+    private final StubGutendexService gutendexService = new StubGutendexService();
+    private final MutableClock clock = new MutableClock();
+
+    @AfterEach
+    void closeClient() {
+        gutendexService.close();
+    }
+
+    @Test
+    void normalizedTermsShareOneEntry() {
+        GutendexCache cache = cache(10, "");
+
+        cache.fetchBooks("Don Quijote");
+        cache.fetchBooks("  don   QUIJOTE ");
+
+        assertThat(gutendexService.calls).hasValue(1);
+        assertThat(cache.stats()).extracting(CacheStats::hits, CacheStats::misses).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void countersArePublishedAsCacheMeters() {
+        GutendexCache cache = cache(10, "");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.fetchBooks("Dracula");
+        cache.fetchBooks("dracula");
+        cache.fetchBooks("Emma");
+
+        assertThat(registry.get("cache.gets").tags("cache", "gutendex", "result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "gutendex", "result", "miss").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("cache.size").tag("cache", "gutendex").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        GutendexCache cache = cache(10, "");
+
+        cache.fetchBooks("Dracula");
+        clock.advance(Duration.ofMinutes(61));
+        cache.fetchBooks("Dracula");
+
+        assertThat(gutendexService.calls).hasValue(2);
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        GutendexCache cache = cache(2, "");
+
+        cache.fetchBooks("a");
+        cache.fetchBooks("b");
+        cache.fetchBooks("a");
+        cache.fetchBooks("c");
+        cache.fetchBooks("a");
+
+        assertThat(gutendexService.calls).hasValue(3);
+        assertThat(cache.stats()).extracting(CacheStats::evictions, CacheStats::size).containsExactly(1L, 2);
+    }
+
+    @Test
+    void concurrentMissesIssueASingleRequest() throws Exception {
+        GutendexCache cache = cache(10, "");
+        gutendexService.release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<GutendexResponseDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.fetchBooks("Frankenstein")));
+            }
+            // Let every caller reach the cache before the single load completes
+            Thread.sleep(200);
+            gutendexService.release.countDown();
+
+            for (Future<GutendexResponseDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).results().get(0).title()).isEqualTo("frankenstein");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(gutendexService.calls).hasValue(1);
+        assertThat(cache.stats().coalesced()).isEqualTo(15);
+    }
+
+    @Test
+    void persistedEntriesSurviveARestart(@TempDir Path dir) {
+        String file = dir.resolve("gutendex-cache.json").toString();
+        GutendexCache first = cache(10, file);
+        first.fetchBooks("Emma");
+        first.save();
+
+        GutendexCache second = cache(10, file);
+        second.load();
+        GutendexResponseDTO response = second.fetchBooks("Emma");
+
+        assertThat(response.results()).extracting(BookDTO::title).containsExactly("emma");
+        assertThat(gutendexService.calls).hasValue(1);
+    }
+
+    private GutendexCache cache(int maxEntries, String persistFile) {
+        return new GutendexCache(gutendexService,
+                new GutendexCacheProperties(maxEntries, Duration.ofHours(1), persistFile), clock);
+    }
+
+    private static class StubGutendexService extends GutendexService {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile CountDownLatch release;
+
+        @Override
+        public GutendexResponseDTO fetchBooks(String title) {
+            calls.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            BookDTO book = new BookDTO(null, title, List.of(), List.of("en"), 1.0);
+            return new GutendexResponseDTO(1, null, null, List.of(book));
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
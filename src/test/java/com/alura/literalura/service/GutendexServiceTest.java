@@ -0,0 +1,196 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.config.GutendexProperties;
+import com.alura.literalura.dto.BookDTO;
+import com.alura.literalura.dto.GutendexPageInfo;
+import com.alura.literalura.dto.GutendexResponseDTO;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GutendexServiceTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final AtomicReference<String> retryAfter = new AtomicReference<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+    private GutendexService gutendexService;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/books/", exchange -> {
+            requests.incrementAndGet();
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            boolean fail = failuresBeforeSuccess.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+            byte[] body = fail
+                    ? "unavailable".getBytes(StandardCharsets.UTF_8)
+                    : ("{\"count\":1,\"next\":null,\"previous\":null,\"results\":[{\"title\":\""
+                            + query.substring("search=".length()).replace("\\", "\\\\").replace("\"", "\\\"")
+                            + "\",\"authors\":[],\"languages\":[\"en\"],"
+                            + "\"download_count\":1}]}").getBytes(StandardCharsets.UTF_8);
+            if (fail && retryAfter.get() != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter.get());
+            }
+            exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/books/";
+        gutendexService = new GutendexService(GutendexProperties.defaults()
+                .withBaseUrl(baseUrl)
+                .withRetries(2, Duration.ofMillis(10)), meterRegistry);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        gutendexService.close();
+        server.stop(0);
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() {
+        failuresBeforeSuccess.set(2);
+
+        GutendexResponseDTO response = gutendexService.fetchBooks("Dracula");
+
+        assertThat(response.results()).extracting(BookDTO::title).containsExactly("Dracula");
+        assertThat(requests).hasValue(3);
+        assertThat(meterRegistry.get("gutendex.client.retries").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find("gutendex.client.errors").counter()).isNull();
+    }
+
+    @Test
+    void givesUpOnceRetriesAreExhausted() {
+        failuresBeforeSuccess.set(10);
+
+        assertThatThrownBy(() -> gutendexService.fetchBooks("Dracula"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("503");
+        assertThat(requests).hasValue(3);
+        assertThat(meterRegistry.get("gutendex.client.errors").tag("error", "503").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gutendex.client").tag("phase", "decode").timer().count()).isZero();
+    }
+
+    @Test
+    void honoursAShortRetryAfter() {
+        failuresBeforeSuccess.set(1);
+        retryAfter.set("0");
+
+        assertThat(gutendexService.fetchBooks("Dracula").results()).hasSize(1);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void failsFastWhenRetryAfterExceedsTheRequestTimeout() {
+        failuresBeforeSuccess.set(1);
+        retryAfter.set("86400");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> gutendexService.fetchBooks("Dracula")).hasMessageContaining("503");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void keepsTheInterruptOfACancelledLookup() {
+        Thread.currentThread().interrupt();
+
+        assertThatThrownBy(() -> gutendexService.fetchBooks("Dracula"))
+                .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(requests).hasValue(0);
+    }
+
+    @Test
+    void timesNetworkAndDecodeSeparately() {
+        gutendexService.fetchBooks("Dracula");
+        gutendexService.streamBooks("Frankenstein", book -> {
+        });
+
+        assertThat(meterRegistry.get("gutendex.client").tag("phase", "network").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gutendex.client").tag("phase", "decode").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gutendex.client").tag("phase", "network").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isPositive();
+    }
+
+    @Test
+    void encodesTitlesWithReservedCharacters() {
+        String title = "Pride & Prejudice #2: 100% \"Austen\" | Vol+1";
+
+        assertThat(gutendexService.fetchBooks(title).results()).extracting(BookDTO::title).containsExactly(title);
+        List<String> streamed = new ArrayList<>();
+        gutendexService.streamBooks(title, book -> streamed.add(book.title()));
+        assertThat(streamed).containsExactly(title);
+    }
+
+    @Test
+    void fetchAllResolvesEveryDistinctTitle() {
+        List<String> titles = new ArrayList<>(IntStream.range(0, 100).mapToObj(i -> "Title " + i).toList());
+        titles.add("Title 0");
+
+        Map<String, GutendexResponseDTO> responses = gutendexService.fetchAll(titles);
+
+        assertThat(responses).hasSize(100);
+        assertThat(responses.get("Title 42").results().get(0).title()).isEqualTo("Title 42");
+        assertThat(requests).hasValue(100);
+    }
+
+    @Test
+    void readPageEmitsEveryBookAndKeepsTheHeader() {
+        String json = """
+                {"count":2,"next":"https://gutendex.com/books/?page=2","previous":null,
+                 "results":[
+                   {"id":2000,"title":"Don Quijote","authors":[{"name":"Cervantes Saavedra, Miguel de",
+                    "birth_year":1547,"death_year":1616}],"subjects":["Spain -- Fiction"],
+                    "languages":["es"],"download_count":12345},
+                   {"id":84,"title":"Frankenstein","authors":[],"languages":["en"],"download_count":99}
+                 ]}""";
+        List<BookDTO> books = new ArrayList<>();
+
+        GutendexPageInfo info = gutendexService.readPage(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), books::add);
+
+        assertThat(info).isEqualTo(new GutendexPageInfo(2, "https://gutendex.com/books/?page=2", null));
+        assertThat(books).extracting(BookDTO::title).containsExactly("Don Quijote", "Frankenstein");
+        assertThat(books.get(0).authors().get(0).birthYear()).isEqualTo(1547);
+        assertThat(books.get(1).downloadCount()).isEqualTo(99.0);
+    }
+
+    @Test
+    void nextPageUrlIsNullOnTheLastPage() {
+        byte[] body = """
+                {"count":1,"next":null,"previous":"https://gutendex.com/books/?page=1","results":[]}"""
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(gutendexService.nextPageUrl(body)).isNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.alura.literalura.service;
+
+import com.alura.literalura.dto.LatencySummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class LatencyReportServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LatencyReportService service = new LatencyReportService(registry);
+
+    @Test
+    void summarizesSuccessfulCallsByGroupSlowestFirst() {
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5, 0.95, 0.99).build().merge(config);
+            }
+        });
+        Timer.builder("gutendex.client").tag("phase", "network").register(registry).record(Duration.ofMillis(300));
+        repositoryTimer("findByGutenbergId", "SUCCESS").record(Duration.ofMillis(2));
+        repositoryTimer("summarizeDownloads", "SUCCESS").record(Duration.ofMillis(40));
+        repositoryTimer("summarizeDownloads", "ERROR").record(Duration.ofMillis(900));
+        Timer.builder("book.service").tags("class", BookService.class.getName(), "method", "getBookStatistics",
+                "exception", "none").register(registry).record(Duration.ofMillis(50));
+
+        assertThat(service.summaries())
+                .extracting(LatencySummary::group, LatencySummary::operation)
+                .containsExactly(
+                        tuple("gutendex", "network"),
+                        tuple("repository", "BookRepository.summarizeDownloads"),
+                        tuple("repository", "BookRepository.findByGutenbergId"),
+                        tuple("service", "BookService.getBookStatistics"));
+        LatencySummary network = service.summaries().get(0);
+        assertThat(network.count()).isEqualTo(1);
+        assertThat(network.meanMillis()).isEqualTo(300.0);
+        // Percentiles are approximated from a histogram
+        assertThat(network.p99Millis()).isCloseTo(300.0, withinPercentage(10));
+    }
+
+    @Test
+    void leavesPercentilesOutWhenNotConfigured() {
+        repositoryTimer("findByGutenbergId", "SUCCESS").record(Duration.ofMillis(2));
+
+        assertThat(service.summaries()).singleElement()
+                .satisfies(summary -> assertThat(summary.p50Millis()).isNaN());
+    }
+
+    private Timer repositoryTimer(String method, String state) {
+        return Timer.builder("spring.data.repository.invocations")
+                .tags("repository", "BookRepository", "method", method, "state", state, "exception", "None")
+                .register(registry);
+    }
+}
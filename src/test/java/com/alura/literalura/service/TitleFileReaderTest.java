@@ -0,0 +1,38 @@
+package com.alura.literalura.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleFileReaderTest {
+
+    @Test
+    void readsOneTitlePerLineSkippingBlanksAndComments(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("titles.txt"), """
+                # nightly import
+                Don Quijote
+
+                  Pride and Prejudice \s
+                """);
+
+        assertThat(TitleFileReader.read(file)).containsExactly("Don Quijote", "Pride and Prejudice");
+    }
+
+    @Test
+    void readsTheFirstCsvColumnAndSkipsTheHeader(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("titles.csv"), """
+                titulo,autor
+                "Frankenstein; Or, The Modern Prometheus",Shelley
+                "The ""Lost"" World",Doyle
+                Dracula,Stoker
+                """);
+
+        assertThat(TitleFileReader.read(file))
+                .containsExactly("Frankenstein; Or, The Modern Prometheus", "The \"Lost\" World", "Dracula");
+    }
+}